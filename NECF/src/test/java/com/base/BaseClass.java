@@ -1,17 +1,17 @@
 package com.base;
 
-import org.openqa.selenium.support.ui.WebDriverWait;
+import com.utility.WaitEngine;
 
 public class BaseClass {
 
-	private static ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
+	private static ThreadLocal<WaitEngine> waitEngine = new ThreadLocal<>();
 
-	public static void setWait(WebDriverWait webDriverWait) {
-		wait.set(webDriverWait);
+	public static void setWaitEngine(WaitEngine engine) {
+		waitEngine.set(engine);
 	}
 
-	public static WebDriverWait getWait() {
-		return wait.get();
+	public static WaitEngine getWaitEngine() {
+		return waitEngine.get();
 	}
 
 }
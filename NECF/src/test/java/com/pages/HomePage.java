@@ -1,21 +1,27 @@
 package com.pages;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
-import org.apache.logging.log4j.Logger;
-import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.testng.Assert;
 
 
 import com.utility.ConfigReader;
+import com.utility.ElementCheck;
 import com.utility.Elements;
-import com.utility.LoggerHelper;
-import com.utility.ExtentLogger;
+import com.utility.LocatorProfiler;
+import com.utility.MetricsRegistry;
+import com.utility.MetricsTrendStore;
+import com.utility.MetricsTrendStore.Regression;
+import com.utility.PageMetrics;
+import com.utility.PageMetricsCollector;
+import com.utility.SiteAvailabilityChecker;
+import com.utility.SiteAvailabilityChecker.CheckResult;
+import com.utility.TestLog;
 import com.webdrivermanager.DriverManager;
 
 
@@ -23,59 +29,66 @@ import com.webdrivermanager.DriverManager;
 public class HomePage {
 	WebDriver driver;
 	Elements util;
-	JavascriptExecutor js;
-	private static final Logger log = LoggerHelper.getLogger(HomePage.class);
+	private static final TestLog log = TestLog.of(HomePage.class);
+	private static final MetricsRegistry.Family<MetricsRegistry.Histogram> pageLoad = MetricsRegistry
+			.histogram("necf_page_load_seconds", "Page load time (loadEventEnd) measured in the browser", "url");
 
 	public HomePage() {
 		this.driver = DriverManager.getDriver();
 		util = new Elements();
-		PageFactory.initElements(driver, this);
+		LocatorProfiler.initElements(driver, this);
 	}
 
-	@FindBy(xpath = "(//a[@href='https://mediaxbook.com'])[1]")
-	WebElement titleLink;
-	@FindBy(xpath = "//div[.='size']")
-	WebElement size;
-	@FindBy(xpath = "//h1[contains(text(),'About NECF')]")
-	WebElement AboutNECF;
-	@FindBy(xpath = "//p[contains(@class,'elementor-heading') and contains(text(),'NECF Corporation. All Rights Reserved')]")
-	WebElement endLine;
+	private static final String TITLE_LINK = "(//a[@href='https://mediaxbook.com'])[1]";
+	private static final String ABOUT_NECF = "//h1[contains(text(),'About NECF')]";
+	private static final String END_LINE = "//p[contains(@class,'elementor-heading') and contains(text(),'NECF Corporation. All Rights Reserved')]";
 
 	// -----------------------------------------
 	// CHECK SITE UP
 	// -----------------------------------------
 	public boolean isSiteUp(String urlString) {
-		try {
+		log.info("Checking site availability for URL: {}", urlString);
+
+		CheckResult result = SiteAvailabilityChecker.check(urlString);
 
-			log.info("Checking site availability for URL: " + urlString);
-			ExtentLogger.extentInfo("Checking site availability for URL: " + urlString);
+		if (result.getError() != null) {
+			log.error("Website is DOWN! Error: {}", result.getError());
+			return false;
+		}
 
-			URL url = new URL(urlString);
-			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-			connection.setConnectTimeout(5000);
-			connection.connect();
+		log.info("Server responded with status code: {} in {} ms", result.getStatus(), result.getLatencyMillis());
 
-			int code = connection.getResponseCode();
+		recordTrend(urlString, "httpLatencyMs", result.getLatencyMillis());
 
-			log.info("Server responded with status code: " + code);
-			ExtentLogger.extentInfo("Server responded with status code: " + code);
+		if (result.isUp()) {
+			log.pass("Website is UP");
+		} else {
+			log.error("Website is DOWN! HTTP Status: {}", result.getStatus());
+		}
 
-			boolean isUp = (code >= 200 && code < 400);
+		return result.isUp();
+	}
 
-			if (isUp) {
-				log.info("Website is UP");
-				ExtentLogger.extentPass("Website is UP");
+	// -----------------------------------------
+	// CHECK ALL CONFIGURED ENDPOINTS
+	// -----------------------------------------
+	public void verifyingEndpointsAvailable() {
+		List<String> urls = SiteAvailabilityChecker.configuredUrls();
+		log.info("Checking availability of {} endpoint(s) concurrently", urls.size());
+
+		List<CheckResult> results = SiteAvailabilityChecker.checkAll(urls);
+		int down = 0;
+		for (CheckResult result : results) {
+			if (result.isUp()) {
+				log.pass("Endpoint UP: {}", result);
 			} else {
-				log.error("Website is DOWN! HTTP Status: " + code);
-				ExtentLogger.extentError("Website is DOWN! HTTP Status: " + code);
+				down++;
+				log.error("Endpoint DOWN: {}", result);
 			}
+		}
 
-			return isUp;
-
-		} catch (Exception e) {
-			log.error("Website is DOWN! Error: " + e.getMessage());
-			ExtentLogger.extentError("Website is DOWN! Error: " + e.getMessage());
-			return false;
+		if (down > 0) {
+			Assert.fail(down + " of " + results.size() + " endpoint(s) are DOWN");
 		}
 	}
 
@@ -83,107 +96,115 @@ public class HomePage {
 	// NAVIGATE TO URL + PAGE LOAD TIME
 	// -----------------------------------------
 	public void goToUrl() {
+		String expectedUrl = ConfigReader.getProperty("url");
 		try {
-			driver.get(ConfigReader.getProperty("url"));
-			log.info("Navigated to URL: " + ConfigReader.getProperty("url"));
-			ExtentLogger.extentInfo("Navigated to URL: " + ConfigReader.getProperty("url"));
+			PageMetricsCollector.prepare(driver);
+			driver.get(expectedUrl);
+			log.info("Navigated to URL: {}", expectedUrl);
 		} catch (Exception e) {
 			log.error("Page failed to load. Site may be DOWN!");
-			ExtentLogger.extentError("Page failed to load. Site may be DOWN!");
-
-			log.error("Error message: " + e.getMessage());
-			ExtentLogger.extentError("Error message: " + e.getMessage());
+			log.error("Error message: {}", e.getMessage());
 
 			Assert.fail("Page load failed. Website is down.");
 		}
 
 		try {
-			js = (JavascriptExecutor) driver;
-			long loadTime = (Long) js.executeScript(
-					"return window.performance.timing.loadEventEnd - window.performance.timing.navigationStart;");
+			PageMetrics metrics = PageMetricsCollector.collect(driver);
+
+			pageLoad.labels(metrics.getUrl()).observe(metrics.getLoadTimeMs() / 1000.0);
+
+			log.info("Page Load Time: {} ms", metrics.getLoadTimeMs());
+
+			log.getLogger().info("{}", metrics);
+			log.table(metrics.toTable());
 
-			log.info("Page Load Time: " + loadTime + " ms");
-			ExtentLogger.extentInfo("Page Load Time: " + loadTime + " ms");
+			recordTrend(metrics.getUrl(), "loadTimeMs", metrics.getLoadTimeMs());
+			recordTrend(metrics.getUrl(), "ttfbMs", metrics.getTtfbMs());
+			if (metrics.getLcpMs() != null) {
+				recordTrend(metrics.getUrl(), "lcpMs", metrics.getLcpMs());
+			}
 
 		} catch (Exception e) {
-			log.error("Unable to calculate performance timing");
-			ExtentLogger.extentError("Unable to calculate performance timing");
+			log.error("Unable to calculate performance timing: {}", e.getMessage());
+		}
+	}
+
+	// -----------------------------------------
+	// HISTORY + REGRESSION CHECK
+	// -----------------------------------------
+	private void recordTrend(String page, String metric, double value) {
+		try {
+			Regression regression = MetricsTrendStore.getInstance().recordAndCheck(page, metric, value);
+			log.getLogger().info("Trend {}", regression.getBaseline());
+			if (regression.isRegression()) {
+				log.warn("{}", regression);
+			} else {
+				log.getLogger().debug("{}", regression);
+			}
+		} catch (Exception e) {
+			log.getLogger().warn("Could not update metrics history: {}", e.getMessage());
 		}
 	}
 
 	public void verifyingTitle() {
+		String expectedUrl = ConfigReader.getProperty("url");
+		String expectedTitle = ConfigReader.getProperty("title");
 		try {
 			log.info("Verifying URL...");
-			ExtentLogger.extentInfo("Verifying URL...");
 
 			String url = util.getCurrentUrl();
-			log.info("Current URL: " + url);
-			ExtentLogger.extentInfo("Current URL: " + url);
-
-			if (!ConfigReader.getProperty("url").equals(url)) {
-				ExtentLogger.extentFail(
-						"URL verification failed! Expected: " + ConfigReader.getProperty("url") + ", Found: " + url);
-				Assert.fail(
-						"URL verification failed! Expected: " + ConfigReader.getProperty("url") + ", Found: " + url);
+			log.info("Current URL: {}", url);
+
+			if (!expectedUrl.equals(url)) {
+				log.fail("URL verification failed! Expected: {}, Found: {}", expectedUrl, url);
+				Assert.fail("URL verification failed! Expected: " + expectedUrl + ", Found: " + url);
 			} else {
-				ExtentLogger.extentPass("URL verified successfully");
+				log.pass("URL verified successfully");
 			}
 
 			String title = util.getTitle();
-			log.info("Page Title: " + title);
-			ExtentLogger.extentInfo("Page Title: " + title);
-
-			if (!ConfigReader.getProperty("title").equals(title)) {
-				ExtentLogger.extentFail("Title verification failed! Expected: " + ConfigReader.getProperty("title")
-						+ ", Found: " + title);
-				Assert.fail("Title verification failed! Expected: " + ConfigReader.getProperty("title") + ", Found: "
-						+ title);
+			log.info("Page Title: {}", title);
+
+			if (!expectedTitle.equals(title)) {
+				log.fail("Title verification failed! Expected: {}, Found: {}", expectedTitle, title);
+				Assert.fail("Title verification failed! Expected: " + expectedTitle + ", Found: " + title);
 			} else {
-				ExtentLogger.extentPass("Title verified successfully");
+				log.pass("Title verified successfully");
 			}
 
 		} catch (Exception e) {
-			log.error("Exception during title verification: " + e.getMessage());
-			ExtentLogger.extentError("Exception during title verification: " + e.getMessage());
+			log.error("Exception during title verification: {}", e.getMessage());
 			Assert.fail("Exception during title verification: " + e.getMessage());
 		}
 	}
 
 	public void verfiyingHomePage() {
+		// Sections further down fade in on scroll, so they are scrolled to before they must be visible
+		List<ElementCheck> checks = Arrays.asList(
+				ElementCheck.visible("Title link", By.xpath(TITLE_LINK)),
+				ElementCheck.visible("About NECF section", By.xpath(ABOUT_NECF)).scrolledIntoView(),
+				ElementCheck.visible("Last element", By.xpath(END_LINE)).scrolledIntoView());
+		Map<String, ElementCheck.Result> results;
 		try {
 			log.info("Verifying the page elements...");
-			ExtentLogger.extentInfo("Verifying the page elements...");
-
-			util.getVisible(titleLink);
-			if (titleLink.isDisplayed()) {
-				ExtentLogger.extentPass("Title link verified...");
-			} else {
-				ExtentLogger.extentFail("Title link not displayed!");
-				Assert.fail("Title link not displayed!");
-			}
-
-			util.scrollToView(AboutNECF);
-			util.getVisible(AboutNECF);
-			if (AboutNECF.isDisplayed()) {
-				ExtentLogger.extentPass("About NECF section verified...");
-			} else {
-				ExtentLogger.extentFail("About NECF section not displayed!");
-				Assert.fail("About NECF section not displayed!");
-			}
+			results = util.verifyAll(checks);
+		} catch (Exception e) {
+			log.error("Exception while verifying home page: {}", e.getMessage());
+			Assert.fail("Exception while verifying home page: " + e.getMessage());
+			return;
+		}
 
-			util.scrollToView(endLine);
-			util.getVisible(endLine);
-			if (endLine.isDisplayed()) {
-				ExtentLogger.extentPass("Last element displayed...");
+		List<String> failed = new ArrayList<>();
+		for (ElementCheck.Result result : results.values()) {
+			if (result.isSatisfied()) {
+				log.pass("{} verified in {} ms", result.getCheck().getName(), result.getElapsedMillis());
 			} else {
-				ExtentLogger.extentFail("Last element not displayed!");
-				Assert.fail("Last element not displayed!");
+				failed.add(result.toString());
+				log.fail("{}", result);
 			}
-
-		} catch (Exception e) {
-			log.error("Exception while verifying home page: " + e.getMessage());
-			ExtentLogger.extentError("Exception while verifying home page: " + e.getMessage());
-			Assert.fail("Exception while verifying home page: " + e.getMessage());
+		}
+		if (!failed.isEmpty()) {
+			Assert.fail(failed.size() + " of " + results.size() + " home page element(s) not verified: " + failed);
 		}
 	}
 
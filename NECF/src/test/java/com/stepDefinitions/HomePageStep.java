@@ -35,5 +35,10 @@ public class HomePageStep {
 		homePage.verfiyingHomePage();
 	    
 	}
+
+	@And("all configured endpoints should be available")
+	public void all_configured_endpoints_should_be_available() {
+		homePage.verifyingEndpointsAvailable();
+	}
 	
 }
@@ -1,68 +1,106 @@
 package com.stepDefinitions;
 
-import java.io.File;
-import java.nio.file.*;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.base.BaseClass;
+import com.utility.BrowserMatrix;
+import com.utility.EvidenceCapture;
 import com.utility.ExtentLogger;
 import com.utility.LoggerHelper;
+import com.utility.MetricsRegistry;
+import com.utility.NetworkRecorder;
+import com.utility.WaitEngine;
 import com.webdrivermanager.DriverManager;
+import com.webdrivermanager.NetworkProfiles;
 
 import io.cucumber.java.*;
 
 public class Hooks {
 
     private static final Logger log = LoggerHelper.getLogger(Hooks.class);
-    private static final List<String> failedScenarios = new ArrayList<>();
-    private static final List<String> failedScreenshots = new ArrayList<>();
-    private static final String SCREENSHOT_DIR = "target/ExtentReports/screenshots/";
+    // Scenarios may finish concurrently when the runner executes them in parallel
+    private static final Queue<String> failedScenarios = new ConcurrentLinkedQueue<>();
+    private static final Queue<String> failedScreenshots = new ConcurrentLinkedQueue<>();
+    private static final String RUN_ID = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    private static final AtomicInteger screenshotSequence = new AtomicInteger();
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> scenarios = MetricsRegistry
+            .counter("necf_scenarios", "Finished scenarios by status", "status");
 
     @Before
     public void setUp(Scenario scenario) {
+        String networkProfile = null;
+        // A browser matrix run has its browser already chosen; @browser= is then ignored
+        String matrixBrowser = BrowserMatrix.currentBrowser();
+        if(matrixBrowser != null) {
+            DriverManager.setDriver(matrixBrowser);
+            ExtentLogger.assignBrowser(matrixBrowser);
+            log.info("Browser matrix run on " + matrixBrowser + ": " + scenario.getName());
+        }
         for(String tag : scenario.getSourceTagNames()) {
             if(tag.startsWith("@browser=")) {
                 String browser = tag.split("=")[1];
                 DriverManager.setDriver(browser);
+            } else if(tag.startsWith("@network=")) {
+                networkProfile = tag.split("=")[1];
             }
         }
         WebDriver driver = DriverManager.getDriver();
         if(driver != null) {
             log.info("Driver initialized for scenario: " + scenario.getName());
             driver.manage().window().maximize();
-            driver.manage().timeouts().implicitlyWait(java.time.Duration.ofSeconds(10));
-            BaseClass.setWait(new WebDriverWait(driver, java.time.Duration.ofSeconds(10)));
+            // No implicit wait: WaitEngine applies the single timeout, so failed lookups don't stack two
+            driver.manage().timeouts().implicitlyWait(java.time.Duration.ZERO);
+            BaseClass.setWaitEngine(new WaitEngine(driver));
+            if(networkProfile != null) {
+                NetworkProfiles.apply(driver, networkProfile);
+            }
+            NetworkRecorder.start(driver);
         }
     }
 
     @After
     public void tearDown(Scenario scenario) {
+        scenarios.labels(scenario.isFailed() ? "failed" : "passed").inc();
         WebDriver driver = DriverManager.getDriver();
         if(driver == null) return;
 
+        // Unique per run, thread and capture so same-named scenarios never overwrite each other;
+        // matrix runs also carry the browser so their evidence can be told apart
+        String matrixBrowser = BrowserMatrix.currentBrowser();
+        String scenarioName = scenario.getName().replaceAll("[^a-zA-Z0-9]", "_")
+                + (matrixBrowser != null ? "_" + matrixBrowser : "") + "_" + RUN_ID + "_t"
+                + Thread.currentThread().getId() + "_" + screenshotSequence.incrementAndGet();
         try {
-            String scenarioName = scenario.getName().replaceAll("[^a-zA-Z0-9]", "_");
-            Path screenshotPath = Paths.get(SCREENSHOT_DIR, scenarioName + ".png");
-            Files.createDirectories(screenshotPath.getParent());
-
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Files.copy(screenshot.toPath(), screenshotPath, StandardCopyOption.REPLACE_EXISTING);
+            NetworkRecorder.stop(scenarioName);
+            if(EvidenceCapture.shouldCapture(scenario.isFailed())) {
+                // Only the capture runs here; encoding and writing happen in the background
+                Path screenshotPath = EvidenceCapture.capture(driver, scenarioName);
 
+                if(screenshotPath != null) {
+                    if(scenario.isFailed()) {
+                        failedScreenshots.add(screenshotPath.toString());
+                    }
+                    ExtentLogger.screenshot(EvidenceCapture.reportPath(screenshotPath));
+                }
+            }
             if(scenario.isFailed()) {
-                failedScenarios.add(scenario.getName());
-                failedScreenshots.add(screenshotPath.toAbsolutePath().toString());
-                ExtentLogger.screenshot("screenshots/" + scenarioName + ".png");
+                failedScenarios.add(matrixBrowser != null ? scenario.getName() + " [" + matrixBrowser + "]"
+                        : scenario.getName());
             }
-        } catch(Exception e) {
-            log.error("Error capturing screenshot: " + e.getMessage(), e);
         } finally {
             DriverManager.quitDriver();
-            log.info("Driver quit after scenario: " + scenario.getName());
+            log.info("Driver released after scenario: " + scenario.getName());
         }
     }
 
@@ -74,4 +112,11 @@ public class Hooks {
     public static List<String> getFailedScreenshots() {
         return new ArrayList<>(failedScreenshots);
     }
+
+    // Long-running modes collect failures per cycle
+    public static void resetFailures() {
+        failedScenarios.clear();
+        failedScreenshots.clear();
+        EvidenceCapture.reset();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.stepDefinitions;
+
+import java.util.Locale;
+
+import org.testng.Assert;
+
+import com.utility.PageMetrics;
+import com.utility.ScenarioMetrics;
+import com.utility.TestLog;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Then;
+
+/**
+ * Performance budgets as Gherkin steps. Each step compares the last page measured in the
+ * scenario (see {@link ScenarioMetrics}) with its budget and fails with budget versus
+ * actual:
+ *
+ * <pre>
+ * Then page load should complete within 3000 ms
+ * And largest contentful paint should be under 2.5 s
+ * And no more than 60 requests
+ * And total transfer size should be under 2 MB
+ * </pre>
+ */
+public class PerformanceBudgetSteps {
+
+	private static final TestLog log = TestLog.of(PerformanceBudgetSteps.class);
+
+	@Then("page load should complete within {int} ms")
+	public void page_load_should_complete_within_ms(int budgetMs) {
+		check("Page load", ScenarioMetrics.lastPage().getLoadTimeMs(), budgetMs, "ms");
+	}
+
+	@Then("time to first byte should be under {int} ms")
+	public void time_to_first_byte_should_be_under_ms(int budgetMs) {
+		check("Time to first byte", ScenarioMetrics.lastPage().getTtfbMs(), budgetMs, "ms");
+	}
+
+	@Then("largest contentful paint should be under {double} {word}")
+	public void largest_contentful_paint_should_be_under(double budget, String unit) {
+		PageMetrics page = ScenarioMetrics.lastPage();
+		if (page.getLcpMs() == null) {
+			fail("Largest contentful paint was not reported by the browser for " + page.getUrl());
+		}
+		check("Largest contentful paint", page.getLcpMs(), millis(budget, unit), "ms");
+	}
+
+	@Then("cumulative layout shift should be under {double}")
+	public void cumulative_layout_shift_should_be_under(double budget) {
+		PageMetrics page = ScenarioMetrics.lastPage();
+		if (page.getCls() == null) {
+			fail("Cumulative layout shift was not reported by the browser for " + page.getUrl());
+		}
+		check("Cumulative layout shift", page.getCls(), budget, "");
+	}
+
+	@Then("no more than {int} requests")
+	public void no_more_than_requests(int budget) {
+		check("Requests", ScenarioMetrics.requestCount(), budget, "");
+	}
+
+	@Then("total transfer size should be under {double} {word}")
+	public void total_transfer_size_should_be_under(double budget, String unit) {
+		check("Transfer size", ScenarioMetrics.transferredBytes() / 1024.0, kilobytes(budget, unit), "KB");
+	}
+
+	@After(order = 100)
+	public void clearScenarioMetrics() {
+		ScenarioMetrics.clear();
+	}
+
+	// -----------------------------------------
+	// BUDGET CHECK
+	// -----------------------------------------
+	private void check(String metric, double actual, double budget, String unit) {
+		String values = format(actual, unit) + " vs budget " + format(budget, unit);
+		if (actual <= budget) {
+			String message = "✔ " + metric + " within budget: " + values + " ("
+					+ Math.round(budget == 0 ? 100 : actual * 100 / budget) + "% used)";
+			log.pass(message);
+		} else {
+			double over = actual - budget;
+			fail(metric + " over budget: " + values + " (+" + format(over, unit)
+					+ (budget > 0 ? String.format(Locale.ROOT, ", +%.1f%%", over * 100 / budget) : "") + ")");
+		}
+	}
+
+	private void fail(String message) {
+		log.fail(message);
+		Assert.fail(message);
+	}
+
+	private static String format(double value, String unit) {
+		String number = value == Math.rint(value) ? String.valueOf((long) value)
+				: String.format(Locale.ROOT, "%.2f", value);
+		return unit.isEmpty() ? number : number + " " + unit;
+	}
+
+	private static double millis(double value, String unit) {
+		switch (unit.toLowerCase(Locale.ROOT)) {
+		case "ms":
+			return value;
+		case "s":
+		case "sec":
+		case "seconds":
+			return value * 1000;
+		default:
+			throw new IllegalArgumentException("Unknown time unit '" + unit + "', use ms or s");
+		}
+	}
+
+	private static double kilobytes(double value, String unit) {
+		switch (unit.toUpperCase(Locale.ROOT)) {
+		case "B":
+		case "BYTES":
+			return value / 1024;
+		case "KB":
+			return value;
+		case "MB":
+			return value * 1024;
+		default:
+			throw new IllegalArgumentException("Unknown size unit '" + unit + "', use bytes, KB or MB");
+		}
+	}
+}
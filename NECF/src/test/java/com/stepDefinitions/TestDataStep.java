@@ -0,0 +1,58 @@
+package com.stepDefinitions;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.Logger;
+
+import com.utility.ConfigReader;
+import com.utility.ExcelDataCache;
+import com.utility.ExcelRow;
+import com.utility.ExtentLogger;
+import com.utility.LoggerHelper;
+import com.utility.TestDataContext;
+
+import io.cucumber.java.After;
+import io.cucumber.java.en.Given;
+
+/**
+ * Loads one Excel row for the scenario. A Scenario Outline only needs to list the row
+ * numbers or keys in its Examples; the data itself stays in the workbook (excelPath) and
+ * is read, through the compiled cache, until the row is found.
+ */
+public class TestDataStep {
+
+	private static final Logger log = LoggerHelper.getLogger(TestDataStep.class);
+
+	@Given("test data from sheet {string} row {int}")
+	public void test_data_from_sheet_row(String sheet, int rowNum) throws IOException {
+		load(sheet, rows -> rows.filter(r -> r.getRowNum() == rowNum).findFirst(), "row " + rowNum);
+	}
+
+	@Given("test data from sheet {string} where {string} is {string}")
+	public void test_data_from_sheet_where_is(String sheet, String column, String value) throws IOException {
+		load(sheet, rows -> rows.filter(r -> value.equals(r.getString(column))).findFirst(),
+				column + " = " + value);
+	}
+
+	@After(order = 100)
+	public void clearTestData() {
+		TestDataContext.clear();
+	}
+
+	private interface Lookup {
+		Optional<ExcelRow> find(Stream<ExcelRow> rows);
+	}
+
+	private void load(String sheet, Lookup lookup, String description) throws IOException {
+		try (Stream<ExcelRow> rows = ExcelDataCache.rows(Paths.get(ConfigReader.getProperty("excelPath")), sheet)) {
+			ExcelRow row = lookup.find(rows)
+					.orElseThrow(() -> new IllegalArgumentException("No " + description + " in sheet " + sheet));
+			TestDataContext.set(row);
+			log.info("✔ Test data loaded from " + sheet + ": " + row);
+			ExtentLogger.extentInfo("Test data (" + sheet + ", " + description + "): " + row.asMap());
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package com.testRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import com.stepDefinitions.Hooks;
+import com.utility.ConfigReader;
+import com.utility.ExtentLogger;
+import com.utility.LoggerHelper;
+import com.utility.MetricsServer;
+import com.utility.MetricsTrendStore;
+import com.utility.SiteAvailabilityChecker;
+import com.utility.SiteAvailabilityChecker.CheckResult;
+import com.webdrivermanager.DriverManager;
+import com.webdrivermanager.DriverPool;
+
+import io.cucumber.core.cli.Main;
+
+/**
+ * Synthetic monitoring mode: one long-lived JVM that keeps browsers warm in the
+ * driver pool and re-runs the health checks on a schedule.
+ * <p>
+ * Two independent jobs run on a bounded executor: the Cucumber scenarios
+ * ({@code monitor.scenario.interval.seconds}) and the HTTP availability checks
+ * ({@code monitor.availability.interval.seconds}). The next cycle of a job is only
+ * scheduled once the current one has finished, with random jitter, so cycles never
+ * overlap. Start with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.testRunner.MonitorDaemon -Dexec.classpathScope=test
+ * </pre>
+ */
+public class MonitorDaemon {
+
+    private static final Logger log = LoggerHelper.getLogger(MonitorDaemon.class);
+
+    private final long scenarioIntervalMillis = ConfigReader
+            .getDuration("monitor.scenario.interval.seconds", TimeUnit.SECONDS, 300).toMillis();
+    private final long availabilityIntervalMillis = ConfigReader
+            .getDuration("monitor.availability.interval.seconds", TimeUnit.SECONDS, 60).toMillis();
+    private final double jitterFraction = ConfigReader.getDouble("monitor.jitter.fraction", 0.1);
+    private final long shutdownTimeoutSeconds = ConfigReader.getLong("monitor.shutdown.timeout.seconds", 60);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "monitor-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ThreadPoolExecutor checks;
+
+    private final AtomicLong scenarioCycles = new AtomicLong();
+    private final AtomicLong availabilityCycles = new AtomicLong();
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    public MonitorDaemon() {
+        int threads = Math.max(2, ConfigReader.getInt("monitor.check.threads", 2));
+        AtomicInteger count = new AtomicInteger();
+        this.checks = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), r -> new Thread(r, "monitor-check-" + count.incrementAndGet()));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        MonitorDaemon daemon = new MonitorDaemon();
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "monitor-shutdown"));
+        daemon.start();
+        daemon.awaitStop();
+    }
+
+    public void start() {
+        if (!DriverPool.isEnabled()) {
+            log.warn("driver.pool.enabled is false - every cycle will launch a cold browser");
+        }
+        // Scenarios run without the Extent adapter; a report per cycle would grow forever
+        ExtentLogger.setEnabled(false);
+        System.setProperty("cucumber.publish.quiet", "true");
+        MetricsServer.start();
+        if (ConfigReader.getBoolean("config.watch.enabled", true)) {
+            ConfigReader.startWatching();
+        }
+
+        log.info("Monitor started (scenarios every " + scenarioIntervalMillis + " ms, availability every "
+                + availabilityIntervalMillis + " ms, jitter " + (int) (jitterFraction * 100) + "%)");
+        schedule(this::runScenarioCycle, scenarioIntervalMillis, 0);
+        schedule(this::runAvailabilityCycle, availabilityIntervalMillis, 0);
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops scheduling, waits for running cycles to finish and releases all browsers.
+     */
+    public void stop() {
+        if (!stopping.compareAndSet(false, true)) {
+            return;
+        }
+        log.info("Monitor stopping...");
+        scheduler.shutdownNow();
+        checks.shutdown();
+        try {
+            if (!checks.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("Running checks did not finish within " + shutdownTimeoutSeconds + " s, interrupting");
+                checks.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            checks.shutdownNow();
+        } finally {
+            DriverManager.shutdown();
+            MetricsServer.stop();
+            log.info("Monitor stopped after " + scenarioCycles.get() + " scenario cycle(s) and "
+                    + availabilityCycles.get() + " availability cycle(s)");
+            stopped.countDown();
+        }
+    }
+
+    // -----------------------------------------
+    // SCHEDULING
+    // -----------------------------------------
+    // Each job has at most one task pending or running, so its cycles cannot overlap
+    private void schedule(Runnable cycle, long intervalMillis, long delayMillis) {
+        if (stopping.get()) {
+            return;
+        }
+        try {
+            scheduler.schedule(() -> submit(cycle, intervalMillis), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Monitor is stopping, cycle not rescheduled");
+        }
+    }
+
+    private void submit(Runnable cycle, long intervalMillis) {
+        try {
+            checks.execute(() -> {
+                try {
+                    cycle.run();
+                } catch (Throwable t) {
+                    log.error("Monitor cycle failed: " + t.getMessage(), t);
+                } finally {
+                    schedule(cycle, intervalMillis, jittered(intervalMillis));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (stopping.get()) {
+                log.debug("Monitor is stopping, cycle not started");
+                return;
+            }
+            log.error("❌ Monitor cycle rejected by the check executor, retrying in " + intervalMillis + " ms", e);
+            schedule(cycle, intervalMillis, jittered(intervalMillis));
+        }
+    }
+
+    private long jittered(long intervalMillis) {
+        long jitter = (long) (intervalMillis * jitterFraction);
+        return jitter <= 0 ? intervalMillis
+                : intervalMillis + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+    }
+
+    // -----------------------------------------
+    // CYCLES
+    // -----------------------------------------
+    private void runScenarioCycle() {
+        long cycle = scenarioCycles.incrementAndGet();
+        long start = System.currentTimeMillis();
+        Hooks.resetFailures();
+        // each cycle is a run of its own, so earlier cycles form the regression baseline
+        String runId = MetricsTrendStore.getInstance().startRun();
+        log.debug("Scenario cycle " + cycle + " records as run " + runId);
+
+        List<String> argv = new ArrayList<>();
+        argv.add("--glue");
+        argv.add("com.stepDefinitions");
+        argv.add("--plugin");
+        argv.add("json:target/monitor/last-cycle.json");
+        argv.add("--plugin");
+        argv.add("com.utility.TimingListener");
+        String tags = ConfigReader.getProperty("monitor.tags", "");
+        if (!tags.isEmpty()) {
+            argv.add("--tags");
+            argv.add(tags);
+        }
+        argv.add(ConfigReader.getProperty("monitor.features", "src/test/resources/NECF.feature"));
+
+        byte status;
+        try {
+            Files.createDirectories(Paths.get("target/monitor"));
+            status = Main.run(argv.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+        } catch (Exception e) {
+            log.error("Scenario cycle " + cycle + " could not run: " + e.getMessage(), e);
+            status = 1;
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        List<String> failed = Hooks.getFailedScenarios();
+        MetricsTrendStore.getInstance().record(runId, "monitor", "scenarioCycleMs", duration);
+        if (status == 0) {
+            log.info("Scenario cycle " + cycle + " PASSED in " + duration + " ms");
+        } else {
+            log.error("Scenario cycle " + cycle + " FAILED in " + duration + " ms, failed scenarios: " + failed);
+        }
+    }
+
+    private void runAvailabilityCycle() {
+        long cycle = availabilityCycles.incrementAndGet();
+        long start = System.currentTimeMillis();
+        List<CheckResult> results = SiteAvailabilityChecker.checkAll(SiteAvailabilityChecker.configuredUrls());
+        String runId = MetricsTrendStore.newRunId();
+
+        int down = 0;
+        for (CheckResult result : results) {
+            MetricsTrendStore.getInstance().record(runId, result.getUrl(), "httpLatencyMs", result.getLatencyMillis());
+            if (!result.isUp()) {
+                down++;
+                log.error("Availability cycle " + cycle + ": DOWN " + result);
+            } else {
+                log.debug("Availability cycle " + cycle + ": UP " + result);
+            }
+        }
+        log.info("Availability cycle " + cycle + ": " + (results.size() - down) + "/" + results.size()
+                + " endpoint(s) up in " + (System.currentTimeMillis() - start) + " ms");
+    }
+}
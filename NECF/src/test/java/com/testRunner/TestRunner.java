@@ -1,9 +1,16 @@
 package com.testRunner;
 
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.utility.BrowserMatrix;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
 
 @CucumberOptions(
         features="src/test/resources/NECF.feature", 
@@ -12,6 +19,9 @@ import io.cucumber.testng.CucumberOptions;
                 "pretty",
                 "html:target/htmlReports/htmlReport.html",
                 "json:target/jsonReports/jsonReport.json",
+                "com.utility.TimingListener",
+                "com.utility.LocatorProfiler",
+                "com.utility.TestLogFlusher",
                 "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"
             }
 
@@ -22,4 +32,33 @@ public class TestRunner extends AbstractTestNGCucumberTests {
     public void beforeSuite() {
         System.out.println("Test Suite started - ExtentReports will be initialized");
     }
+
+    /**
+     * Runs scenarios concurrently. The number of threads is the suite's data provider
+     * thread count, set from parallel.threads by SuiteListener.
+     */
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return BrowserMatrix.expand(super.scenarios());
+    }
+
+    /**
+     * Matrix rows (see {@link BrowserMatrix}) run the original scenario with their browser set.
+     */
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        if (pickleWrapper instanceof BrowserMatrix.BrowserPickle) {
+            BrowserMatrix.BrowserPickle pickle = (BrowserMatrix.BrowserPickle) pickleWrapper;
+            BrowserMatrix.run(pickle, () -> super.runScenario(pickle.getDelegate(), featureWrapper));
+        } else {
+            super.runScenario(pickleWrapper, featureWrapper);
+        }
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void afterSuite() {
+        BrowserMatrix.report();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.service.ExtentService;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+/**
+ * Runs each scenario once per browser.
+ * <p>
+ * The browsers come from a {@code @browsers=chrome,firefox,edge} tag on the scenario or
+ * feature, or else from {@code browser.matrix} for the whole suite. {@link #expand} turns
+ * every scenario row of the TestNG data provider into one row per browser. The rows run in
+ * parallel like any other scenarios, each on its own driver. While a row runs,
+ * {@link #currentBrowser()} tells {@code Hooks} which browser to launch; that takes
+ * precedence over {@code @browser=}. Outcomes and durations are summed per browser and
+ * compared in the report when the suite ends.
+ */
+public class BrowserMatrix {
+
+    private static final Logger log = LoggerHelper.getLogger(BrowserMatrix.class);
+    private static final String TAG = "@browsers=";
+
+    private static final ThreadLocal<String> browser = new ThreadLocal<>();
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private BrowserMatrix() {
+    }
+
+    /**
+     * One scenario pinned to one browser. Delegates to the original wrapper so Cucumber runs
+     * it unchanged; only the name TestNG reports gains the browser.
+     */
+    public static final class BrowserPickle implements PickleWrapper {
+        private final PickleWrapper delegate;
+        private final String browser;
+
+        BrowserPickle(PickleWrapper delegate, String browser) {
+            this.delegate = delegate;
+            this.browser = browser;
+        }
+
+        @Override
+        public Pickle getPickle() {
+            return delegate.getPickle();
+        }
+
+        public PickleWrapper getDelegate() {
+            return delegate;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        @Override
+        public String toString() {
+            return delegate + " [" + browser + "]";
+        }
+    }
+
+    /**
+     * Expands {@code {PickleWrapper, FeatureWrapper}} rows into one row per browser for
+     * scenarios that have a matrix; other rows are kept as they are.
+     */
+    public static Object[][] expand(Object[][] scenarios) {
+        List<String> suiteBrowsers = ConfigReader.getList("browser.matrix");
+        List<Object[]> rows = new ArrayList<>();
+        for (Object[] row : scenarios) {
+            PickleWrapper pickle = (PickleWrapper) row[0];
+            List<String> browsers = browsersOf(pickle.getPickle().getTags(), suiteBrowsers);
+            if (browsers.isEmpty()) {
+                rows.add(row);
+                continue;
+            }
+            for (String name : browsers) {
+                Object[] copy = row.clone();
+                copy[0] = new BrowserPickle(pickle, name);
+                rows.add(copy);
+            }
+        }
+        if (rows.size() != scenarios.length) {
+            log.info("Browser matrix: " + scenarios.length + " scenario(s) expanded to " + rows.size() + " run(s)");
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    private static List<String> browsersOf(List<String> tags, List<String> suiteBrowsers) {
+        for (String tag : tags) {
+            if (tag.startsWith(TAG)) {
+                List<String> browsers = new ArrayList<>();
+                for (String name : tag.substring(TAG.length()).split(",")) {
+                    if (!name.trim().isEmpty() && !browsers.contains(name.trim().toLowerCase(Locale.ROOT))) {
+                        browsers.add(name.trim().toLowerCase(Locale.ROOT));
+                    }
+                }
+                return browsers;
+            }
+        }
+        return suiteBrowsers;
+    }
+
+    /**
+     * Browser of the matrix run on the current thread, or null outside a matrix run.
+     */
+    public static String currentBrowser() {
+        return browser.get();
+    }
+
+    /**
+     * Runs one matrix row with {@link #currentBrowser()} set, recording its outcome.
+     */
+    public static void run(BrowserPickle pickle, Runnable scenario) {
+        browser.set(pickle.getBrowser());
+        long start = System.nanoTime();
+        String outcome = "failed";
+        try {
+            scenario.run();
+            outcome = "passed";
+        } catch (RuntimeException | Error e) {
+            if (e.getClass().getName().endsWith("SkipException")) {
+                outcome = "skipped";
+            }
+            throw e;
+        } finally {
+            browser.remove();
+            stats.computeIfAbsent(pickle.getBrowser(), Stats::new).record(outcome, System.nanoTime() - start);
+        }
+    }
+
+    // -----------------------------------------
+    // REPORT
+    // -----------------------------------------
+    /**
+     * Logs the per-browser results and adds them to the Extent report. Does nothing when no
+     * matrix run took place.
+     */
+    public static void report() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        Map<String, Stats> byBrowser = new TreeMap<>(stats);
+        long fastestAvg = Long.MAX_VALUE;
+        for (Stats s : byBrowser.values()) {
+            fastestAvg = Math.min(fastestAvg, s.avgMillis());
+        }
+
+        String[][] table = new String[byBrowser.size() + 1][];
+        table[0] = new String[] { "Browser", "Runs", "Passed", "Failed", "Skipped", "Total ms", "Avg ms", "Max ms",
+                "vs fastest" };
+        int i = 1;
+        StringBuilder text = new StringBuilder("Browser matrix results:");
+        for (Stats s : byBrowser.values()) {
+            String relative = fastestAvg <= 0 ? "-"
+                    : String.format(Locale.ROOT, "%+.0f%%", (s.avgMillis() - fastestAvg) * 100.0 / fastestAvg);
+            table[i++] = new String[] { s.browser, String.valueOf(s.runs.sum()), String.valueOf(s.passed.sum()),
+                    String.valueOf(s.failed.sum()), String.valueOf(s.skipped.sum()), String.valueOf(s.totalMillis()),
+                    String.valueOf(s.avgMillis()), String.valueOf(s.maxMillis()), relative };
+            text.append(String.format("%n  %-10s runs=%d passed=%d failed=%d skipped=%d avg=%d ms max=%d ms (%s)",
+                    s.browser, s.runs.sum(), s.passed.sum(), s.failed.sum(), s.skipped.sum(), s.avgMillis(),
+                    s.maxMillis(), relative));
+        }
+        log.info(text.toString());
+
+        if (!ExtentLogger.isEnabled()) {
+            return;
+        }
+        try {
+            ExtentService.getInstance().createTest("Browser Matrix", "Scenario results and timings per browser")
+                    .info(MarkupHelper.createTable(table));
+        } catch (Exception e) {
+            log.debug("Browser matrix not added to Extent report: " + e.getMessage());
+        }
+    }
+
+    private static final class Stats {
+        final String browser;
+        final LongAdder runs = new LongAdder();
+        final LongAdder passed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Stats(String browser) {
+            this.browser = browser;
+        }
+
+        void record(String outcome, long nanos) {
+            runs.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+            if ("passed".equals(outcome)) {
+                passed.increment();
+            } else if ("skipped".equals(outcome)) {
+                skipped.increment();
+            } else {
+                failed.increment();
+            }
+        }
+
+        long totalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(total.sum());
+        }
+
+        long avgMillis() {
+            long n = runs.sum();
+            return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(total.sum() / n);
+        }
+
+        long maxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(max.get());
+        }
+    }
+}
@@ -1,31 +1,351 @@
 package com.utility;
 
 import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.Logger;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.github.cdimascio.dotenv.DotenvEntry;
+
+/**
+ * Layered configuration, highest precedence last:
+ * <ol>
+ * <li>{@code Config.properties} on the classpath</li>
+ * <li>{@code .env} in the working directory</li>
+ * <li>environment variables</li>
+ * <li>system properties ({@code -Dkey=value})</li>
+ * </ol>
+ * Only prefixed environment variables are read: {@code NECF_DRIVER_POOL_MAX_SIZE} overrides
+ * {@code driver.pool.max.size}, while an unrelated {@code URL}, {@code TITLE} or {@code WAIT_MODE}
+ * on a CI agent is ignored. A system property overrides a key that Config.properties or .env
+ * defines under exactly that name ({@code -Dparallel.threads=4}); any other key needs the
+ * {@code necf.} prefix ({@code -Dnecf.<key>=value}).
+ * <p>
+ * Lookups read an immutable snapshot through a volatile reference, so they never lock.
+ * {@link #startWatching()} rebuilds the snapshot when Config.properties or .env change;
+ * values that callers copied into fields keep their old value until the next run.
+ */
 public class ConfigReader {
-    private static Properties prop;
 
-    public static void loadProperties() {
-        try {
-            prop = new Properties();
-            InputStream is = ConfigReader.class.getClassLoader()
-                    .getResourceAsStream("Config.properties");
+    private static final Logger log = LoggerHelper.getLogger(ConfigReader.class);
+
+    private static final String CONFIG_FILE = "Config.properties";
+    private static final String DOTENV_FILE = ".env";
+    // the only environment variables and the system properties that may set any key
+    private static final String ENV_PREFIX = "NECF_";
+    private static final String PROPERTY_PREFIX = "necf.";
+
+    // Published only once fully built, so parallel scenarios never see a half-filled snapshot
+    private static volatile Snapshot snapshot;
+    private static Thread watcher;
+
+    /**
+     * Immutable view of every layer, merged.
+     */
+    private static final class Snapshot {
+        // the key as written in its layer -> winning value
+        final Map<String, String> byKey;
+        // canonical (KEY_NAME) form -> winning value, for keys that only exist in code defaults
+        final Map<String, String> byCanonical;
+
+        Snapshot(Map<String, String> byKey, Map<String, String> byCanonical) {
+            this.byKey = byKey;
+            this.byCanonical = byCanonical;
+        }
+
+        String get(String key) {
+            String value = byKey.get(key);
+            return value != null ? value : byCanonical.get(canonical(key));
+        }
+    }
+
+    public static synchronized void loadProperties() {
+        Set<String> keys = new HashSet<>();
+        Map<String, String> merged = new HashMap<>();
+
+        // 1. classpath file
+        try (InputStream is = ConfigReader.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
 
             if (is == null) {
                 throw new RuntimeException("config.properties NOT FOUND in classpath!");
             }
 
-            prop.load(is);
+            Properties loaded = new Properties();
+            loaded.load(is);
+            for (String key : loaded.stringPropertyNames()) {
+                layer(merged, keys, key, loaded.getProperty(key));
+            }
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Failed to load config.properties!", e);
         }
+
+        // 2. .env
+        Dotenv dotenv = Dotenv.configure().directory(".").filename(DOTENV_FILE).ignoreIfMissing()
+                .ignoreIfMalformed().load();
+        for (DotenvEntry entry : dotenv.entries(Dotenv.Filter.DECLARED_IN_ENV_FILE)) {
+            layer(merged, keys, entry.getKey(), entry.getValue());
+        }
+
+        // 3. environment: NECF_ names only
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(ENV_PREFIX) && key.length() > ENV_PREFIX.length()) {
+                layer(merged, keys, key.substring(ENV_PREFIX.length()), entry.getValue());
+            }
+        }
+
+        // 4. system properties: keys the files declare, spelled exactly, or necf. names
+        Set<String> declared = new HashSet<>(keys);
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            if (key.startsWith(PROPERTY_PREFIX) && key.length() > PROPERTY_PREFIX.length()) {
+                layer(merged, keys, key.substring(PROPERTY_PREFIX.length()), system.getProperty(key));
+            } else if (declared.contains(key)) {
+                layer(merged, keys, key, system.getProperty(key));
+            }
+        }
+
+        Map<String, String> byKey = new HashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            byKey.put(key, merged.get(canonical(key)));
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(byKey), Collections.unmodifiableMap(merged));
+    }
+
+    private static void layer(Map<String, String> merged, Set<String> keys, String key, String value) {
+        if (value != null) {
+            keys.add(key);
+            merged.put(canonical(key), value);
+        }
+    }
+
+    private static String canonical(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private static Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (ConfigReader.class) {
+                if (snapshot == null) {
+                    loadProperties();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
     }
 
     public static String getProperty(String key) {
-        if (prop == null) {
-            loadProperties();
+        return current().get(key);
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    // -----------------------------------------
+    // TYPED GETTERS
+    // -----------------------------------------
+    public static int getInt(String key, int defaultValue) {
+        String value = getProperty(key, null);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "an integer");
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = getProperty(key, null);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "a whole number");
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = getProperty(key, null);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "a number");
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getProperty(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Reads a duration such as {@code 500ms}, {@code 30s}, {@code 5m}, {@code 2h}, {@code 1d}
+     * or ISO-8601 ({@code PT30S}). A bare number is taken in {@code unit}, so keys named
+     * {@code *.seconds} or {@code *.ms} keep working.
+     */
+    public static Duration getDuration(String key, TimeUnit unit, long defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return Duration.ofNanos(unit.toNanos(defaultValue));
+        }
+        try {
+            String text = value.toLowerCase(Locale.ROOT);
+            if (text.startsWith("p")) {
+                return Duration.parse(value.toUpperCase(Locale.ROOT));
+            }
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2).trim()));
+            }
+            long amount = Long.parseLong(text.replaceAll("[smhd]$", "").trim());
+            switch (text.charAt(text.length() - 1)) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            case 'd':
+                return Duration.ofDays(amount);
+            default:
+                return Duration.ofNanos(unit.toNanos(amount));
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw invalid(key, value, "a duration");
+        }
+    }
+
+    /**
+     * Reads one of {@code type}'s constants, ignoring case ({@code failure} for {@code FAILURE}).
+     */
+    public static <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = getProperty(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        String allowed = Arrays.stream(type.getEnumConstants())
+                .map(c -> c.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(", "));
+        throw invalid(key, value, "one of " + allowed);
+    }
+
+    /**
+     * Comma separated values, trimmed, without empty entries.
+     */
+    public static List<String> getList(String key) {
+        List<String> values = new ArrayList<>();
+        String value = getProperty(key, null);
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    values.add(item.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    private static IllegalArgumentException invalid(String key, String value, String expected) {
+        return new IllegalArgumentException("Config '" + key + "' must be " + expected + ", got '" + value + "'");
+    }
+
+    // -----------------------------------------
+    // HOT RELOAD
+    // -----------------------------------------
+    /**
+     * Rebuilds the snapshot whenever Config.properties (when loaded from a directory, not a
+     * jar) or .env change. Meant for long-running modes; safe to call more than once.
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        URL resource = ConfigReader.class.getClassLoader().getResource(CONFIG_FILE);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                files.add(Paths.get(resource.toURI()).toAbsolutePath());
+            } catch (Exception e) {
+                log.warn("Cannot watch " + resource + ": " + e.getMessage());
+            }
+        }
+        files.add(Paths.get(DOTENV_FILE).toAbsolutePath());
+
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            Set<Path> dirs = new HashSet<>();
+            for (Path file : files) {
+                if (dirs.add(file.getParent())) {
+                    file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+            watcher = new Thread(() -> watch(service, files), "config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+            log.info("Watching for configuration changes: " + files);
+        } catch (Exception e) {
+            log.warn("⚠️ Configuration hot reload unavailable: " + e.getMessage());
+        }
+    }
+
+    private static void watch(WatchService service, List<Path> files) {
+        try (WatchService ignored = service) {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    Path dir = (Path) key.watchable();
+                    if (context instanceof Path && files.contains(dir.resolve((Path) context).toAbsolutePath())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    try {
+                        loadProperties();
+                        log.info("✔ Configuration reloaded");
+                    } catch (RuntimeException e) {
+                        // keep serving the last good snapshot
+                        log.warn("⚠️ Configuration reload failed, keeping previous values: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Configuration watcher stopped: " + e.getMessage());
         }
-        return prop.getProperty(key);
     }
 }
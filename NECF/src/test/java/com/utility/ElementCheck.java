@@ -0,0 +1,172 @@
+package com.utility;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.openqa.selenium.By;
+
+/**
+ * One expectation for {@link Elements#verifyAll}: a named locator and the condition it
+ * must meet. All checks of a batch are evaluated together inside the browser.
+ */
+public class ElementCheck {
+
+    public enum Condition {
+        PRESENT, VISIBLE, TEXT_CONTAINS, TEXT_MATCHES
+    }
+
+    private final String name;
+    private final By locator;
+    private final Condition condition;
+    private final String expected;
+    private final boolean scroll;
+    // TEXT_MATCHES only: the expression for checks that run outside the browser script
+    private final Pattern pattern;
+
+    // Group constructs Java accepts but JavaScript does not: inline flags (?i) and atomic groups (?>
+    private static final Pattern JAVA_ONLY_GROUP = Pattern.compile("(?<!\\\\)(?:\\\\\\\\)*\\(\\?[^:=!<]");
+
+    private ElementCheck(String name, By locator, Condition condition, String expected, boolean scroll) {
+        this.name = name;
+        this.locator = locator;
+        this.condition = condition;
+        this.expected = expected;
+        this.scroll = scroll;
+        this.pattern = condition == Condition.TEXT_MATCHES ? Pattern.compile(expected) : null;
+    }
+
+    public static ElementCheck present(String name, By locator) {
+        return new ElementCheck(name, locator, Condition.PRESENT, null, false);
+    }
+
+    public static ElementCheck visible(String name, By locator) {
+        return new ElementCheck(name, locator, Condition.VISIBLE, null, false);
+    }
+
+    public static ElementCheck textContains(String name, By locator, String text) {
+        return new ElementCheck(name, locator, Condition.TEXT_CONTAINS, text, false);
+    }
+
+    /**
+     * The element's visible text must match the regular expression. It is evaluated as a
+     * JavaScript {@code RegExp} in a batch and as a {@link Pattern} when a check falls back to
+     * WebDriver, so it must mean the same in both: plain classes, groups, lookarounds and
+     * quantifiers. Inline flags such as {@code (?i)} and atomic groups are rejected.
+     */
+    public static ElementCheck textMatches(String name, By locator, String regex) {
+        if (JAVA_ONLY_GROUP.matcher(regex).find()) {
+            throw new IllegalArgumentException("Pattern of check '" + name
+                    + "' uses a group that JavaScript does not support: " + regex);
+        }
+        try {
+            return new ElementCheck(name, locator, Condition.TEXT_MATCHES, regex, false);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid pattern for check '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The same check, but the element is scrolled into view once it is found and the condition
+     * does not hold yet. Use it for content that only appears (fades in, lazy-loads) on scroll.
+     * Within a batch, a scrolled element has to meet its condition before the next one is
+     * scrolled to, so each section gets its turn in the viewport.
+     */
+    public ElementCheck scrolledIntoView() {
+        return new ElementCheck(name, locator, condition, expected, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    public String getExpected() {
+        return expected;
+    }
+
+    public boolean isScrolledIntoView() {
+        return scroll;
+    }
+
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Arguments for the browser script; null when the locator type cannot run there.
+     */
+    Map<String, Object> toScriptArgument() {
+        String[] selector = WaitEngine.selectorOf(locator);
+        if (selector == null) {
+            return null;
+        }
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("using", selector[0]);
+        spec.put("value", selector[1]);
+        spec.put("condition", condition.name());
+        spec.put("expected", expected);
+        spec.put("scroll", scroll);
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + condition.name().toLowerCase() + (expected != null ? " '" + expected + "'" : "") + ")";
+    }
+
+    /**
+     * Outcome of one check.
+     */
+    public static final class Result {
+        private final ElementCheck check;
+        private final boolean satisfied;
+        private final boolean found;
+        private final long elapsedMillis;
+        private final String text;
+
+        Result(ElementCheck check, boolean satisfied, boolean found, long elapsedMillis, String text) {
+            this.check = check;
+            this.satisfied = satisfied;
+            this.found = found;
+            this.elapsedMillis = elapsedMillis;
+            this.text = text;
+        }
+
+        public ElementCheck getCheck() {
+            return check;
+        }
+
+        public boolean isSatisfied() {
+            return satisfied;
+        }
+
+        public boolean isFound() {
+            return found;
+        }
+
+        /** Time from the start of the batch until the condition held (or the timeout). */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /** Visible text of the element when last evaluated, if it was found. */
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return check + ": " + (satisfied ? "OK" : found ? "NOT MET" : "NOT FOUND") + " in " + elapsedMillis
+                    + " ms" + (!satisfied && text != null ? ", text was '" + text + "'" : "");
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.utility;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
@@ -10,9 +13,7 @@ import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
 import org.apache.logging.log4j.Logger;
@@ -29,7 +30,8 @@ public class Elements {
 
 	private static final Logger log = LoggerHelper.getLogger(Elements.class);
 
-	private WebDriverWait wait;
+	private WaitEngine wait;
+	private WebTable table;
 	public WebDriver driver;
 	public JavascriptExecutor js;
 	public Actions action;
@@ -38,17 +40,66 @@ public class Elements {
 	public Faker faker;
 
 	public Elements() {
-		this.wait = BaseClass.getWait();
 		this.driver = DriverManager.getDriver();
+		this.wait = BaseClass.getWaitEngine() != null ? BaseClass.getWaitEngine() : new WaitEngine(driver);
 		this.faker = new Faker();
 	}
 
 	public WebElement getVisible(WebElement element) {
-		return wait.until(ExpectedConditions.visibilityOf(element));
+		return wait.visible(element);
+	}
+
+	public WebElement getVisible(WebElement element, Duration timeout) {
+		return wait.visible(element, timeout);
+	}
+
+	public WebElement getVisible(By locator) {
+		return wait.visible(locator, wait.getDefaultTimeout());
+	}
+
+	public WebElement getVisible(By locator, Duration timeout) {
+		return wait.visible(locator, timeout);
 	}
 
 	public WebElement getClickable(WebElement element) {
-		return wait.until(ExpectedConditions.elementToBeClickable(element));
+		return wait.clickable(element);
+	}
+
+	public WebElement getClickable(WebElement element, Duration timeout) {
+		return wait.clickable(element, timeout);
+	}
+
+	public WebElement getClickable(By locator, Duration timeout) {
+		return wait.clickable(locator, timeout);
+	}
+
+	/**
+	 * Negative check: true as soon as nothing matches, false after the timeout.
+	 */
+	public boolean isAbsent(By locator, Duration timeout) {
+		return wait.absent(locator, timeout);
+	}
+
+	public boolean isInvisible(By locator, Duration timeout) {
+		return wait.invisible(locator, timeout);
+	}
+
+	public boolean isVisible(By locator, Duration timeout) {
+		return wait.isVisible(locator, timeout);
+	}
+
+	/**
+	 * Evaluates all checks together in one browser call, polling in the page until every
+	 * check holds or the timeout expires.
+	 *
+	 * @return result per check name, in the order given
+	 */
+	public Map<String, ElementCheck.Result> verifyAll(List<ElementCheck> checks) {
+		return wait.verifyAll(checks, wait.getDefaultTimeout());
+	}
+
+	public Map<String, ElementCheck.Result> verifyAll(List<ElementCheck> checks, Duration timeout) {
+		return wait.verifyAll(checks, timeout);
 	}
 
 	public void click(WebElement element) {
@@ -82,45 +133,35 @@ public class Elements {
 
 	public void clearAndType(WebElement element, String text) {
 
-		getVisible(element).click();
-		element.sendKeys(Keys.CONTROL + "a");
-		element.sendKeys(Keys.BACK_SPACE);
-		element.sendKeys(text);
+		WebElement field = getVisible(element);
+		field.click();
+		field.sendKeys(Keys.CONTROL + "a");
+		field.sendKeys(Keys.BACK_SPACE);
+		field.sendKeys(text);
 	}
 
 	public void clearAll(WebElement element) {
 
-		getVisible(element).click();
-		element.sendKeys(Keys.CONTROL + "a");
-		element.sendKeys(Keys.BACK_SPACE);
+		WebElement field = getVisible(element);
+		field.click();
+		field.sendKeys(Keys.CONTROL + "a");
+		field.sendKeys(Keys.BACK_SPACE);
 
 	}
 
+	/**
+	 * Types into the cell under {@code heading} in row {@code rowNum} of the first table on
+	 * the page. The header and row handles are cached between calls; see {@link WebTable}.
+	 */
 	public void sendTextToCellByHeading(String heading, int rowNum, String text) {
-
-		// 1️⃣ Find the column index of the heading (MAC ID, SERIAL NO, etc.)
-		String colIndexXPath = "count((//table//tr)[1]/th[normalize-space()='" + heading
-				+ "']/preceding-sibling::th) + 1";
-
-		// 2️⃣ Build final cell XPath: go to desired row, pick matching column
-		String cellXPath = "(//table//tr)[" + rowNum + "]/td[" + colIndexXPath + "]";
-
-		// 3️⃣ Locate the cell
-		WebElement cell = driver.findElement(By.xpath(cellXPath));
-
-		// 4️⃣ Try sending inside input if cell contains input
-		try {
-			WebElement input = cell.findElement(By.xpath(".//input"));
-			input.clear();
-			input.sendKeys(text);
-		} catch (Exception e) {
-			// If no input field → try sending directly to cell
-			cell.click();
-			cell.clear();
-			cell.sendKeys(text);
+		if (table == null) {
+			table = new WebTable(driver, By.tagName("table"), wait);
 		}
+		table.sendText(heading, rowNum, text);
+	}
 
-		System.out.println("Sent text '" + text + "' under heading '" + heading + "' in row " + rowNum);
+	public WebTable table(By locator) {
+		return new WebTable(driver, locator, wait);
 	}
 
 	public String getTextBoxValue(WebElement element) {
@@ -128,8 +169,9 @@ public class Elements {
 	}
 
 	public void checkBox(WebElement element) {
-		if (!getClickable(element).isSelected()) {
-			element.click();
+		WebElement box = getClickable(element);
+		if (!box.isSelected()) {
+			box.click();
 		}
 	}
 
@@ -139,8 +181,9 @@ public class Elements {
 	}
 
 	public void UncheckBox(WebElement element) {
-		if (getClickable(element).isSelected()) {
-			element.click();
+		WebElement box = getClickable(element);
+		if (box.isSelected()) {
+			box.click();
 		}
 	}
 
@@ -301,8 +344,9 @@ public class Elements {
 	}
 
 	public void toggleOn(WebElement element) {
-		if (!element.isSelected()) {
-			element.click();
+		WebElement toggle = getClickable(element);
+		if (!toggle.isSelected()) {
+			toggle.click();
 		}
 	}
 
@@ -311,26 +355,29 @@ public class Elements {
 	}
 
 	public void toggleOff(WebElement element) {
-		if (element.isSelected()) {
-			element.click();
+		WebElement toggle = getClickable(element);
+		if (toggle.isSelected()) {
+			toggle.click();
 
 		}
 	}
 
 	public void toggleOffConfig(WebElement element) {
 
-		String ariaChecked = element.getAttribute("aria-checked");
+		WebElement toggle = getClickable(element);
+		String ariaChecked = toggle.getAttribute("aria-checked");
 		if ("true".equalsIgnoreCase(ariaChecked)) {
-			element.click();
+			toggle.click();
 		} else {
 			log.debug("Switch already off!");
 		}
 	}
 
 	public void toggleOnConfig(WebElement element) {
-		String ariaChecked = element.getAttribute("aria-checked");
+		WebElement toggle = getClickable(element);
+		String ariaChecked = toggle.getAttribute("aria-checked");
 		if ("false".equalsIgnoreCase(ariaChecked)) {
-			element.click();
+			toggle.click();
 		} else {
 			log.debug("Switch already On!");
 		}
@@ -361,8 +408,9 @@ public class Elements {
 		log.info("Sending date to field: " + finalDate + " (calculated from " + baseDate + " + 2 days)");
 
 		// Send the date (field already cleared)
-		element.sendKeys(finalDate);
-		element.sendKeys(Keys.ENTER);
+		WebElement field = getVisible(element);
+		field.sendKeys(finalDate);
+		field.sendKeys(Keys.ENTER);
 
 		log.debug("Date successfully sent: " + finalDate);
 	}
@@ -1,23 +1,29 @@
 package com.utility;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.logging.log4j.Logger;
 
 import jakarta.activation.DataHandler;
-import jakarta.activation.FileDataSource;
-import jakarta.mail.Authenticator;
 import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
 import jakarta.mail.Multipart;
-import jakarta.mail.PasswordAuthentication;
 import jakarta.mail.Session;
-import jakarta.mail.Transport;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.util.ByteArrayDataSource;
 
 public class EmailReportSender {
 
@@ -35,7 +41,7 @@ public class EmailReportSender {
         StringBuilder recipients = new StringBuilder();
         String[] keys = {"RECIPIENT1","RECIPIENT2","RECIPIENT3","RECIPIENT4","RECIPIENT5"};
         for(String key : keys) {
-            String email = System.getenv(key);
+            String email = credential(key);
             if(email != null && !email.isEmpty()) {
                 if(recipients.length() > 0) recipients.append(",");
                 recipients.append(email);
@@ -44,87 +50,124 @@ public class EmailReportSender {
         return recipients.toString();
     }
 
-    private static final String FROM_EMAIL = System.getenv("EMAIL");
-    private static final String APP_PASSWORD = System.getenv("PASSWORD");
+    private static final String FROM_EMAIL = credential("EMAIL");
+    private static final String APP_PASSWORD = credential("PASSWORD");
 
+    // CI passes the mail settings as plain environment variables, without a .env file
+    private static String credential(String key) {
+        return ConfigReader.getProperty(key, System.getenv(key));
+    }
+
+    private static final long MAX_ATTACHMENT_BYTES = ConfigReader.getLong("mail.attachments.max.bytes", 10485760);
+    private static final int SCREENSHOT_MAX_WIDTH = ConfigReader.getInt("mail.screenshot.max.width", 1280);
+    private static final float SCREENSHOT_QUALITY = (float) ConfigReader.getDouble("mail.screenshot.jpeg.quality", 0.7);
+
+    /**
+     * Queues the failure mail and returns immediately; the message, its zipped report and
+     * downscaled screenshots are built and sent by {@link NotificationDispatcher}.
+     */
     public static void sendFailureReportWithScreenshots(List<String> failedScenarios, List<String> failedScreenshots) {
 
         log.info("========== EMAIL DEBUG START ==========");
 
+        NotificationDispatcher dispatcher = NotificationDispatcher.getInstance(FROM_EMAIL, APP_PASSWORD);
         boolean canSend = true;
         if(FROM_EMAIL == null || FROM_EMAIL.isEmpty()) { log.warn("⚠️ EMAIL env variable NOT SET."); canSend = false; }
-        if(APP_PASSWORD == null || APP_PASSWORD.isEmpty()) { log.warn("⚠️ PASSWORD env variable NOT SET."); canSend = false; }
+        if(dispatcher.isAuthRequired() && (APP_PASSWORD == null || APP_PASSWORD.isEmpty())) { log.warn("⚠️ PASSWORD env variable NOT SET."); canSend = false; }
         String recipients = getRecipients();
         if(recipients.isEmpty()) { log.warn("⚠️ No recipients found."); canSend = false; }
 
         if(!canSend) { log.info("❌ EMAIL SENDING CANCELLED."); log.info("========== EMAIL DEBUG END =========="); return; }
 
-        try {
-            Properties props = new Properties();
-            props.put("mail.smtp.host", "smtp.gmail.com");
-            props.put("mail.smtp.port", "587");
-            props.put("mail.smtp.auth", "true");
-            props.put("mail.smtp.starttls.enable", "true");
-
-            Session session = Session.getInstance(props, new Authenticator() {
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    return new PasswordAuthentication(FROM_EMAIL, APP_PASSWORD);
-                }
-            });
-
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(FROM_EMAIL));
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipients));
-            message.setSubject("NECF SITE DOWN — ATTENTION REQUIRED!");
-
-            MimeBodyPart htmlPart = new MimeBodyPart();
-            StringBuilder htmlContent = new StringBuilder();
-            htmlContent.append("<h2 style='color:red;'>NECF Website Health Check Failed</h2>");
-            htmlContent.append("<p>Automation detected NECF site downtime.</p>");
-            htmlContent.append("<h3>Failed Scenarios:</h3><ul>");
-            for(String scenario : failedScenarios) htmlContent.append("<li>").append(scenario).append("</li>");
-            htmlContent.append("</ul>");
-            htmlPart.setContent(htmlContent.toString(), "text/html");
-
-            Multipart multipart = new MimeMultipart();
-            multipart.addBodyPart(htmlPart);
-
-            // Screenshots
-            for(String path : failedScreenshots) {
-                File file = new File(path);
-                if(file.exists()) {
-                    MimeBodyPart attach = new MimeBodyPart();
-                    attach.setDataHandler(new DataHandler(new FileDataSource(file)));
-                    attach.setFileName(file.getName());
-                    multipart.addBodyPart(attach);
-                    log.info("✔ Screenshot attached: " + file.getAbsolutePath());
-                }
-            }
+        List<String> scenarios = new ArrayList<>(failedScenarios);
+        List<String> screenshots = new ArrayList<>(failedScreenshots);
+        dispatcher.submit("failure report (" + scenarios.size() + " scenario(s))",
+                session -> buildFailureMessage(session, recipients, scenarios, screenshots));
+
+        log.info("========== EMAIL DEBUG END ==========");
+    }
 
-            // HTML report attachment - only attach if file exists and is not empty
-            File htmlReport = new File(getReportPath("SparkReport.html"));
-            if(htmlReport.exists() && htmlReport.length() > 1000) { // Minimum 1KB to ensure it's not empty
-                MimeBodyPart htmlAttach = new MimeBodyPart();
-                htmlAttach.attachFile(htmlReport);
-                multipart.addBodyPart(htmlAttach);
-                log.info("✔ HTML report attached (Size: " + htmlReport.length() + " bytes)");
+    private static MimeMessage buildFailureMessage(Session session, String recipients, List<String> failedScenarios,
+            List<String> failedScreenshots) throws Exception {
+
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(FROM_EMAIL));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(recipients));
+        message.setSubject("NECF SITE DOWN — ATTENTION REQUIRED!");
+
+        Multipart multipart = new MimeMultipart();
+        List<String> skipped = new ArrayList<>();
+        long budget = MAX_ATTACHMENT_BYTES;
+
+        // Screenshots are written in the background; make sure they are on disk
+        EvidenceCapture.awaitPending(30, TimeUnit.SECONDS);
+
+        // Screenshots first: they are small once downscaled and show the failure directly
+        // identical frames share one file, so attach each path once
+        for(String path : new LinkedHashSet<>(failedScreenshots)) {
+            File file = new File(path);
+            if(!file.exists()) continue;
+            byte[] jpeg = ImageEncoder.encode(Files.readAllBytes(file.toPath()), "jpg", SCREENSHOT_MAX_WIDTH, SCREENSHOT_QUALITY);
+            String name = file.getName().replaceFirst("\\.(png|jpg)$", "") + ".jpg";
+            if(jpeg.length > budget) { skipped.add(name); continue; }
+            budget -= jpeg.length;
+            multipart.addBodyPart(attachment(jpeg, "image/jpeg", name));
+            log.info("✔ Screenshot attached: " + name + " (" + file.length() + " -> " + jpeg.length + " bytes)");
+        }
+
+        // HTML report attachment - only attach if file exists and is not empty
+        File htmlReport = new File(getReportPath("SparkReport.html"));
+        if(htmlReport.exists() && htmlReport.length() > 1000) { // Minimum 1KB to ensure it's not empty
+            byte[] zip = zip(htmlReport);
+            if(zip.length > budget) {
+                skipped.add(htmlReport.getName() + ".zip");
             } else {
-                if (!htmlReport.exists()) {
-                    log.warn("⚠️ HTML report not found: " + htmlReport.getAbsolutePath());
-                } else {
-                    log.warn("⚠️ HTML report is empty or too small (Size: " + htmlReport.length() + " bytes). Not attaching to email.");
-                }
+                multipart.addBodyPart(attachment(zip, "application/zip", htmlReport.getName() + ".zip"));
+                log.info("✔ HTML report attached (" + htmlReport.length() + " -> " + zip.length + " bytes zipped)");
             }
+        } else {
+            if (!htmlReport.exists()) {
+                log.warn("⚠️ HTML report not found: " + htmlReport.getAbsolutePath());
+            } else {
+                log.warn("⚠️ HTML report is empty or too small (Size: " + htmlReport.length() + " bytes). Not attaching to email.");
+            }
+        }
+        if(!skipped.isEmpty()) {
+            log.warn("⚠️ Attachment size cap of " + MAX_ATTACHMENT_BYTES + " bytes reached, skipped: " + skipped);
+        }
 
-            message.setContent(multipart);
+        MimeBodyPart htmlPart = new MimeBodyPart();
+        StringBuilder htmlContent = new StringBuilder();
+        htmlContent.append("<h2 style='color:red;'>NECF Website Health Check Failed</h2>");
+        htmlContent.append("<p>Automation detected NECF site downtime.</p>");
+        htmlContent.append("<h3>Failed Scenarios:</h3><ul>");
+        for(String scenario : failedScenarios) htmlContent.append("<li>").append(scenario).append("</li>");
+        htmlContent.append("</ul>");
+        if(!skipped.isEmpty()) {
+            htmlContent.append("<p>Not attached (size limit): ").append(String.join(", ", skipped)).append("</p>");
+        }
+        htmlPart.setContent(htmlContent.toString(), "text/html; charset=UTF-8");
+        multipart.addBodyPart(htmlPart, 0);
 
-            Transport.send(message);
-            log.info("📧 ✔ Email sent successfully!");
+        message.setContent(multipart);
+        return message;
+    }
 
-        } catch(Exception e) {
-            log.error("❌ EMAIL SEND FAILED: " + e.getMessage(), e);
-        }
+    private static MimeBodyPart attachment(byte[] content, String type, String fileName) throws MessagingException {
+        MimeBodyPart part = new MimeBodyPart();
+        part.setDataHandler(new DataHandler(new ByteArrayDataSource(content, type)));
+        part.setFileName(fileName);
+        return part;
+    }
 
-        log.info("========== EMAIL DEBUG END ==========");
+    private static byte[] zip(File file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(file.length(), Integer.MAX_VALUE));
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            zip.setLevel(Deflater.BEST_COMPRESSION);
+            zip.putNextEntry(new ZipEntry(file.getName()));
+            Files.copy(file.toPath(), zip);
+            zip.closeEntry();
+        }
+        return out.toByteArray();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.utility;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Takes scenario screenshots without holding up the test thread.
+ * <p>
+ * The screenshot is taken as bytes while the driver is still alive; re-encoding and writing
+ * the file happen on a background executor so the driver can be released right away.
+ * Which scenarios are captured is set by {@code screenshot.policy}:
+ * <ul>
+ * <li>{@code failure} - failed scenarios only (default)</li>
+ * <li>{@code always} - every scenario</li>
+ * <li>{@code sampled} - failed scenarios plus {@code screenshot.sample.rate} of passing ones</li>
+ * </ul>
+ * {@code screenshot.format} (png/jpg) and {@code screenshot.max.width} shrink the files, and
+ * frames identical to one already captured in this run reuse the existing file.
+ */
+public class EvidenceCapture {
+
+    private static final Logger log = LoggerHelper.getLogger(EvidenceCapture.class);
+
+    public static final String SCREENSHOT_DIR = "target/ExtentReports/screenshots/";
+
+    public enum Policy {
+        FAILURE, ALWAYS, SAMPLED
+    }
+
+    private static final Policy policy = ConfigReader.getEnum("screenshot.policy", Policy.class, Policy.FAILURE);
+    private static final double sampleRate = ConfigReader.getDouble("screenshot.sample.rate", 0.1);
+    private static final String format = ConfigReader.getProperty("screenshot.format", "png");
+    private static final int maxWidth = ConfigReader.getInt("screenshot.max.width", 0);
+    private static final float jpegQuality = (float) ConfigReader.getDouble("screenshot.jpeg.quality", 0.8);
+
+    private static final Map<String, String> byHash = new ConcurrentHashMap<>();
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final Object idle = new Object();
+
+    private static final ThreadPoolExecutor writer;
+
+    static {
+        int threads = Math.max(1, ConfigReader.getInt("screenshot.writer.threads", 2));
+        AtomicInteger count = new AtomicInteger();
+        // Unbounded queue: a capture is only a few hundred KB and must never be dropped
+        writer = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "evidence-writer-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        writer.allowCoreThreadTimeOut(true);
+    }
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> captures = MetricsRegistry
+            .counter("necf_screenshots", "Screenshots by outcome", "outcome");
+    private static final MetricsRegistry.Histogram captureTime = MetricsRegistry
+            .histogram("necf_screenshot_capture_seconds", "Time the test thread spends taking a screenshot").labels();
+
+    private EvidenceCapture() {
+    }
+
+    public static Policy getPolicy() {
+        return policy;
+    }
+
+    public static boolean shouldCapture(boolean failed) {
+        switch (policy) {
+        case ALWAYS:
+            return true;
+        case SAMPLED:
+            return failed || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        default:
+            return failed;
+        }
+    }
+
+    /**
+     * Takes a screenshot and schedules it to be written under {@link #SCREENSHOT_DIR}.
+     *
+     * @param baseName file name without extension
+     * @return the file that will hold the screenshot (an earlier identical one when deduplicated),
+     *         or null if the screenshot could not be taken
+     */
+    public static Path capture(WebDriver driver, String baseName) {
+        byte[] png;
+        long start = System.nanoTime();
+        try {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            log.error("Error capturing screenshot: " + e.getMessage(), e);
+            captures.labels("error").inc();
+            return null;
+        } finally {
+            captureTime.observeNanos(System.nanoTime() - start);
+        }
+
+        Path target = Paths.get(SCREENSHOT_DIR, baseName + "." + ImageEncoder.extension(format)).toAbsolutePath();
+        String existing = byHash.putIfAbsent(sha256(png), target.toString());
+        if (existing != null) {
+            log.info("Screenshot identical to " + Paths.get(existing).getFileName() + ", reusing it");
+            captures.labels("deduplicated").inc();
+            return Paths.get(existing);
+        }
+
+        pending.incrementAndGet();
+        writer.execute(() -> {
+            try {
+                byte[] encoded = ImageEncoder.encode(png, format, maxWidth, jpegQuality);
+                Files.createDirectories(target.getParent());
+                Files.write(target, encoded);
+                captures.labels("written").inc();
+                log.debug("Screenshot written: " + target + " (" + png.length + " -> " + encoded.length + " bytes)");
+            } catch (Exception e) {
+                captures.labels("error").inc();
+                log.error("Error writing screenshot " + target + ": " + e.getMessage(), e);
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (idle) {
+                        idle.notifyAll();
+                    }
+                }
+            }
+        });
+        return target;
+    }
+
+    /**
+     * Path of a captured screenshot relative to the Extent report.
+     */
+    public static String reportPath(Path screenshot) {
+        return "screenshots/" + screenshot.getFileName();
+    }
+
+    /**
+     * Waits until every scheduled screenshot is on disk or the timeout expires.
+     */
+    public static boolean awaitPending(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    log.warn("⚠️ " + pending.get() + " screenshot(s) still being written after " + timeout + " "
+                            + unit.toString().toLowerCase(Locale.ROOT));
+                    return false;
+                }
+                try {
+                    idle.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Forgets the hashes seen so far, so a new monitor cycle gets its own files.
+     */
+    public static void reset() {
+        byHash.clear();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.utility;
+
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compiles spreadsheet sheets into binary files that later runs load through a memory map.
+ * <p>
+ * The first read of a sheet streams it with {@link ExcelReader} and writes
+ * {@code excel.cache.dir/<workbook>-<key>.bin}. Later reads check the source's mtime and
+ * size, then (if those changed) its SHA-256, and only parse the workbook again when the
+ * content really changed. {@code excel.cache.enabled=false} always reads the workbook.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header     magic "NECFXC01", source mtime (long), source size (long), source SHA-256 (32 bytes),
+ *            columns (int), rows (int), dictionary size (int)
+ * dictionary offsets (int[size + 1]) into a UTF-8 blob, then the blob
+ * columns    header name per column as a dictionary index (-1 = unnamed)
+ * row numbers int[rows]
+ * cells      column by column, 9 bytes each: tag (byte) + payload (long)
+ * </pre>
+ * Strings are stored once in the dictionary and cells refer to them by index, so repeated
+ * values (status flags, countries, environments) cost 9 bytes per cell.
+ */
+public class ExcelDataCache {
+
+	private static final Logger log = LoggerHelper.getLogger(ExcelDataCache.class);
+
+	private static final byte[] MAGIC = "NECFXC01".getBytes(StandardCharsets.US_ASCII);
+	private static final int MTIME_OFFSET = MAGIC.length;
+	private static final int HEADER_SIZE = MAGIC.length + 8 + 8 + 32 + 4 + 4 + 4;
+	private static final int CELL_SIZE = 9;
+
+	private static final byte NULL = 0;
+	private static final byte STRING = 1;
+	private static final byte NUMBER = 2;
+	private static final byte BOOLEAN = 3;
+	private static final byte DATE = 4;
+
+	private ExcelDataCache() {
+	}
+
+	public static boolean isEnabled() {
+		return ConfigReader.getBoolean("excel.cache.enabled", true);
+	}
+
+	/**
+	 * Data rows of a sheet, from the cache when it is still valid.
+	 *
+	 * @param sheet sheet name, or null for the first sheet
+	 */
+	public static Stream<ExcelRow> rows(Path file, String sheet) throws IOException {
+		if (!isEnabled()) {
+			ExcelReader excel = new ExcelReader(file);
+			return excel.rows(sheet).onClose(excel::close);
+		}
+		return load(file, sheet).rows();
+	}
+
+	/**
+	 * Opens the cached sheet, compiling it first if the cache is missing or stale.
+	 */
+	public static synchronized Table load(Path file, String sheet) throws IOException {
+		Path source = file.toAbsolutePath().normalize();
+		Path cache = cacheFile(source, sheet);
+		long mtime = Files.getLastModifiedTime(source).toMillis();
+		long size = Files.size(source);
+
+		if (Files.exists(cache)) {
+			try {
+				Table table = Table.map(cache);
+				if (table.sourceMtime == mtime && table.sourceSize == size) {
+					log.debug("Excel cache hit: " + cache.getFileName());
+					return table;
+				}
+				// touched but maybe not edited (checkout, copy): compare content before re-parsing
+				if (table.sourceSize == size && Arrays.equals(table.sourceHash, sha256(source))) {
+					updateMtime(cache, mtime);
+					log.debug("Excel cache still valid after mtime change: " + cache.getFileName());
+					return Table.map(cache);
+				}
+			} catch (IOException | RuntimeException e) {
+				log.warn("⚠️ Discarding unreadable Excel cache " + cache + ": " + e.getMessage());
+			}
+		}
+
+		long start = System.currentTimeMillis();
+		compile(source, sheet, cache, mtime, size);
+		log.info("✔ Compiled " + source.getFileName() + (sheet != null ? " [" + sheet + "]" : "") + " into "
+				+ cache.getFileName() + " in " + (System.currentTimeMillis() - start) + " ms");
+		return Table.map(cache);
+	}
+
+	private static Path cacheFile(Path source, String sheet) throws IOException {
+		Path dir = Paths.get(ConfigReader.getProperty("excel.cache.dir", "target/excel-cache"));
+		Files.createDirectories(dir);
+		String key = hex(digest().digest((source + "\u0000" + (sheet == null ? "" : sheet))
+				.getBytes(StandardCharsets.UTF_8))).substring(0, 16);
+		String name = source.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+		return dir.resolve(name + "-" + key + ".bin");
+	}
+
+	// -----------------------------------------
+	// COMPILE
+	// -----------------------------------------
+	private static void compile(Path source, String sheet, Path cache, long mtime, long size) throws IOException {
+		byte[] hash = sha256(source);
+		Map<String, Integer> dictionary = new LinkedHashMap<>();
+		List<ByteArrayOutputStream> columns = new ArrayList<>();
+		List<Integer> rowNums = new ArrayList<>();
+		String[] header;
+
+		try (ExcelReader excel = new ExcelReader(source); ExcelReader.RowIterator rows = excel.iterator(sheet)) {
+			Map<String, Integer> positions = rows.getColumns();
+			int width = positions.values().stream().mapToInt(i -> i + 1).max().orElse(0);
+			header = new String[width];
+			for (Map.Entry<String, Integer> position : positions.entrySet()) {
+				header[position.getValue()] = position.getKey();
+				dictionary.computeIfAbsent(position.getKey(), k -> dictionary.size());
+			}
+
+			List<DataOutputStream> out = new ArrayList<>(width);
+			for (int i = 0; i < width; i++) {
+				ByteArrayOutputStream column = new ByteArrayOutputStream();
+				columns.add(column);
+				out.add(new DataOutputStream(column));
+			}
+			while (rows.hasNext()) {
+				ExcelRow row = rows.next();
+				rowNums.add(row.getRowNum());
+				for (int i = 0; i < width; i++) {
+					writeCell(out.get(i), header[i] == null ? null : row.get(header[i]), dictionary);
+				}
+			}
+		}
+
+		Path tmp = Files.createTempFile(cache.getParent(), cache.getFileName().toString(), ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+			out.write(MAGIC);
+			out.writeLong(mtime);
+			out.writeLong(size);
+			out.write(hash);
+			out.writeInt(header.length);
+			out.writeInt(rowNums.size());
+			out.writeInt(dictionary.size());
+
+			List<byte[]> strings = new ArrayList<>(dictionary.size());
+			int offset = 0;
+			for (String value : dictionary.keySet()) {
+				byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+				strings.add(utf8);
+				out.writeInt(offset);
+				offset += utf8.length;
+			}
+			out.writeInt(offset);
+			for (byte[] utf8 : strings) {
+				out.write(utf8);
+			}
+
+			for (String name : header) {
+				out.writeInt(name == null ? -1 : dictionary.get(name));
+			}
+			for (int rowNum : rowNums) {
+				out.writeInt(rowNum);
+			}
+			for (ByteArrayOutputStream column : columns) {
+				column.writeTo(out);
+			}
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		try {
+			Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void writeCell(DataOutputStream out, Object value, Map<String, Integer> dictionary)
+			throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+			out.writeLong(0);
+		} else if (value instanceof Double) {
+			out.writeByte(NUMBER);
+			out.writeLong(Double.doubleToRawLongBits((Double) value));
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeLong((Boolean) value ? 1 : 0);
+		} else if (value instanceof LocalDateTime) {
+			out.writeByte(DATE);
+			out.writeLong(((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli());
+		} else {
+			out.writeByte(STRING);
+			out.writeLong(dictionary.computeIfAbsent(value.toString(), k -> dictionary.size()));
+		}
+	}
+
+	private static void updateMtime(Path cache, long mtime) throws IOException {
+		try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(8).putLong(0, mtime);
+			channel.write(buffer, MTIME_OFFSET);
+		}
+	}
+
+	// -----------------------------------------
+	// READ
+	// -----------------------------------------
+	/**
+	 * A compiled sheet backed by a read-only memory map. Strings are decoded on first use.
+	 */
+	public static final class Table {
+
+		private final MappedByteBuffer buffer;
+		private final long sourceMtime;
+		private final long sourceSize;
+		private final byte[] sourceHash = new byte[32];
+		private final int columnCount;
+		private final int rowCount;
+		private final int[] dictOffsets;
+		private final int blobStart;
+		private final String[] strings;
+		private final Map<String, Integer> header;
+		private final int rowNumStart;
+		private final int cellStart;
+
+		private Table(MappedByteBuffer buffer) throws IOException {
+			this.buffer = buffer;
+			byte[] magic = new byte[MAGIC.length];
+			read(0, magic);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException("not an Excel cache file");
+			}
+			this.sourceMtime = buffer.getLong(MAGIC.length);
+			this.sourceSize = buffer.getLong(MAGIC.length + 8);
+			read(MAGIC.length + 16, sourceHash);
+			this.columnCount = buffer.getInt(MAGIC.length + 48);
+			this.rowCount = buffer.getInt(MAGIC.length + 52);
+			int dictSize = buffer.getInt(MAGIC.length + 56);
+
+			this.dictOffsets = new int[dictSize + 1];
+			int pos = HEADER_SIZE;
+			for (int i = 0; i <= dictSize; i++, pos += 4) {
+				dictOffsets[i] = buffer.getInt(pos);
+			}
+			this.blobStart = pos;
+			this.strings = new String[dictSize];
+			pos += dictOffsets[dictSize];
+
+			Map<String, Integer> names = new LinkedHashMap<>();
+			for (int i = 0; i < columnCount; i++, pos += 4) {
+				int index = buffer.getInt(pos);
+				if (index >= 0) {
+					names.put(string(index), i);
+				}
+			}
+			this.header = Collections.unmodifiableMap(names);
+			this.rowNumStart = pos;
+			this.cellStart = pos + rowCount * 4;
+			if ((long) cellStart + (long) columnCount * rowCount * CELL_SIZE > buffer.capacity()) {
+				throw new IOException("truncated Excel cache file");
+			}
+		}
+
+		static Table map(Path cache) throws IOException {
+			try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+				// the mapping stays valid after the channel is closed
+				return new Table(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+		}
+
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		public List<String> getHeader() {
+			return new ArrayList<>(header.keySet());
+		}
+
+		public ExcelRow row(int index) {
+			Object[] values = new Object[columnCount];
+			for (int column = 0; column < columnCount; column++) {
+				values[column] = cell(column, index);
+			}
+			return new ExcelRow(buffer.getInt(rowNumStart + index * 4), header, values);
+		}
+
+		public Stream<ExcelRow> rows() {
+			return IntStream.range(0, rowCount).mapToObj(this::row);
+		}
+
+		private Object cell(int column, int row) {
+			int pos = (int) (cellStart + ((long) column * rowCount + row) * CELL_SIZE);
+			long payload = buffer.getLong(pos + 1);
+			switch (buffer.get(pos)) {
+			case STRING:
+				return string((int) payload);
+			case NUMBER:
+				return Double.longBitsToDouble(payload);
+			case BOOLEAN:
+				return payload != 0;
+			case DATE:
+				return LocalDateTime.ofInstant(Instant.ofEpochMilli(payload), ZoneOffset.UTC);
+			default:
+				return null;
+			}
+		}
+
+		private void read(int pos, byte[] into) {
+			ByteBuffer view = buffer.duplicate();
+			view.position(pos);
+			view.get(into);
+		}
+
+		private String string(int index) {
+			String value = strings[index];
+			if (value == null) {
+				byte[] utf8 = new byte[dictOffsets[index + 1] - dictOffsets[index]];
+				read(blobStart + dictOffsets[index], utf8);
+				value = new String(utf8, StandardCharsets.UTF_8);
+				// benign race: every thread decodes the same value
+				strings[index] = value;
+			}
+			return value;
+		}
+	}
+
+	// -----------------------------------------
+	// HASHING
+	// -----------------------------------------
+	private static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] sha256(Path file) throws IOException {
+		MessageDigest digest = digest();
+		byte[] chunk = new byte[1 << 16];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(chunk)) > 0) {
+				digest.update(chunk, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+}
@@ -0,0 +1,80 @@
+package com.utility;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.testng.annotations.DataProvider;
+
+/**
+ * TestNG data provider that feeds a test one {@link ExcelRow} per invocation.
+ * <p>
+ * Rows are produced as TestNG asks for them, so a sheet with tens of thousands of rows
+ * never sits on the heap. The workbook and sheet come from an
+ * {@link ExcelSheet} annotation on the test method, falling back to {@code excelPath}
+ * and {@code excel.sheet} in Config.properties.
+ *
+ * <pre>
+ * &#64;ExcelDataProvider.ExcelSheet("Users")
+ * &#64;Test(dataProvider = ExcelDataProvider.NAME, dataProviderClass = ExcelDataProvider.class)
+ * public void login(ExcelRow row) { ... row.getString("username") ... }
+ * </pre>
+ */
+public class ExcelDataProvider {
+
+	public static final String NAME = "excel";
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public @interface ExcelSheet {
+		/** Sheet name; empty means excel.sheet, or the first sheet. */
+		String value() default "";
+
+		/** Workbook path; empty means excelPath. */
+		String file() default "";
+	}
+
+	@DataProvider(name = NAME)
+	public static Iterator<Object[]> rows(Method method) throws IOException {
+		ExcelSheet source = method.getAnnotation(ExcelSheet.class);
+		String file = source != null && !source.file().isEmpty() ? source.file() : ConfigReader.getProperty("excelPath");
+		String sheet = source != null && !source.value().isEmpty() ? source.value()
+				: ConfigReader.getProperty("excel.sheet", "");
+		return rows(Paths.get(file), sheet.isEmpty() ? null : sheet);
+	}
+
+	/**
+	 * Lazily yields {@code new Object[] { row }} for every data row, from the compiled
+	 * {@link ExcelDataCache} when enabled; the source is closed once the last row has been
+	 * handed out.
+	 */
+	public static Iterator<Object[]> rows(Path file, String sheet) throws IOException {
+		Stream<ExcelRow> stream = ExcelDataCache.rows(file, sheet);
+		Iterator<ExcelRow> rows = stream.iterator();
+		return new Iterator<Object[]>() {
+			private boolean open = true;
+
+			@Override
+			public boolean hasNext() {
+				boolean more = open && rows.hasNext();
+				if (!more && open) {
+					open = false;
+					stream.close();
+				}
+				return more;
+			}
+
+			@Override
+			public Object[] next() {
+				return new Object[] { rows.next() };
+			}
+		};
+	}
+}
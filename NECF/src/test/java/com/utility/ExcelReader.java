@@ -1,39 +1,345 @@
 package com.utility;
 
 import org.apache.logging.log4j.Logger;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
 
-import java.io.FileInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class ExcelReader {
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streams rows of an .xlsx workbook without loading it into a {@code XSSFWorkbook}.
+ * <p>
+ * Sheets are read straight from the package with {@link XSSFReader} and a StAX pull
+ * parser, so only the shared strings and the current row are held in memory. The first
+ * non-empty row of a sheet is the header; every later row comes back as an
+ * {@link ExcelRow} whose cells can be read by header name.
+ *
+ * <pre>
+ * try (ExcelReader excel = new ExcelReader(path); Stream&lt;ExcelRow&gt; rows = excel.rows("Users")) {
+ * 	rows.filter(r -&gt; r.getBoolean("enabled")).forEach(...);
+ * }
+ * </pre>
+ */
+public class ExcelReader implements Closeable {
 
 	private static final Logger log = LoggerHelper.getLogger(ExcelReader.class);
 
-	public static void main(String[] args) throws IOException {
-		// Specify the path to your Excel file
-		FileInputStream fis = new FileInputStream(ConfigReader.getProperty("excelPath"));
+	private static final XMLInputFactory xmlFactory = XMLInputFactory.newFactory();
+
+	static {
+		xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	private final Path file;
+	private final OPCPackage pkg;
+	private final XSSFReader reader;
+	private final ReadOnlySharedStringsTable sharedStrings;
+	private final StylesTable styles;
+	private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+	public ExcelReader(Path file) throws IOException {
+		this.file = file;
+		try {
+			this.pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+			this.reader = new XSSFReader(pkg);
+			this.sharedStrings = new ReadOnlySharedStringsTable(pkg);
+			this.styles = reader.getStylesTable();
+		} catch (OpenXML4JException | SAXException e) {
+			throw new IOException("Could not open workbook " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	public List<String> sheetNames() throws IOException {
+		List<String> names = new ArrayList<>();
+		try {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream ignored = sheets.next()) {
+					names.add(sheets.getSheetName());
+				}
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException(e);
+		}
+		return names;
+	}
+
+	/**
+	 * Lazily streams the data rows of a sheet. Close the stream to release the sheet.
+	 *
+	 * @param sheetName sheet to read, or null for the first sheet
+	 */
+	public Stream<ExcelRow> rows(String sheetName) throws IOException {
+		RowIterator rows = new RowIterator(openSheet(sheetName));
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(rows::close);
+	}
 
-		// Create a Workbook instance
-		Workbook workbook = new XSSFWorkbook(fis);
+	/**
+	 * Same as {@link #rows(String)} as an iterator; it closes itself after the last row.
+	 */
+	public RowIterator iterator(String sheetName) throws IOException {
+		return new RowIterator(openSheet(sheetName));
+	}
+
+	private InputStream openSheet(String sheetName) throws IOException {
+		try {
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				InputStream sheet = sheets.next();
+				if (sheetName == null || sheetName.equals(sheets.getSheetName())) {
+					return sheet;
+				}
+				sheet.close();
+			}
+		} catch (OpenXML4JException e) {
+			throw new IOException(e);
+		}
+		throw new IllegalArgumentException("Sheet '" + sheetName + "' not found in " + file);
+	}
+
+	@Override
+	public void close() {
+		// read-only package: revert instead of close so nothing is written back
+		pkg.revert();
+	}
+
+	// -----------------------------------------
+	// ROW PARSING
+	// -----------------------------------------
+	/**
+	 * Pulls one {@code <row>} element at a time from the sheet XML.
+	 */
+	public class RowIterator implements Iterator<ExcelRow>, Closeable {
 
-		// Get the first sheet from the workbook
-		Sheet sheet = workbook.getSheetAt(0);
+		private final InputStream in;
+		private final XMLStreamReader xml;
+		private Map<String, Integer> header;
+		private ExcelRow next;
+		private int rowNum;
+		private boolean closed;
 
-		// Iterate through each row in the sheet
-		for (Row row : sheet) {
-			StringBuilder rowData = new StringBuilder();
-			// Iterate through each cell in the row
-			for (Cell cell : row) {
-				// Append the cell's value
-				rowData.append(cell.toString()).append("\t");
+		RowIterator(InputStream in) throws IOException {
+			this.in = in;
+			try {
+				this.xml = xmlFactory.createXMLStreamReader(in);
+			} catch (XMLStreamException e) {
+				in.close();
+				throw new IOException("Could not parse sheet of " + file, e);
 			}
-			log.debug(rowData.toString());
 		}
 
-		// Close the workbook
-		workbook.close();
-		fis.close();
+		@Override
+		public boolean hasNext() {
+			if (next == null && !closed) {
+				next = advance();
+				if (next == null) {
+					close();
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public ExcelRow next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ExcelRow row = next;
+			next = null;
+			return row;
+		}
+
+		/**
+		 * Header names in column order, available once the first row has been read.
+		 */
+		public List<String> getHeader() {
+			hasNext();
+			return header == null ? Collections.emptyList() : new ArrayList<>(header.keySet());
+		}
+
+		/**
+		 * Header name to zero-based column index.
+		 */
+		public Map<String, Integer> getColumns() {
+			hasNext();
+			return header == null ? Collections.emptyMap() : header;
+		}
+
+		private ExcelRow advance() {
+			try {
+				List<Object> values;
+				while ((values = readRow()) != null) {
+					if (header == null) {
+						Map<String, Integer> names = toHeader(values);
+						header = names.isEmpty() ? null : names;
+						continue;
+					}
+					ExcelRow row = new ExcelRow(rowNum, header, values.toArray());
+					if (!row.isEmpty()) {
+						return row;
+					}
+				}
+				return null;
+			} catch (XMLStreamException e) {
+				close();
+				throw new IllegalStateException("Could not read sheet of " + file + ": " + e.getMessage(), e);
+			}
+		}
+
+		private List<Object> readRow() throws XMLStreamException {
+			List<Object> values = null;
+			int column = -1;
+			String type = null;
+			String style = null;
+			StringBuilder text = null;
+
+			while (xml.hasNext()) {
+				int event = xml.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					switch (xml.getLocalName()) {
+					case "row":
+						String r = xml.getAttributeValue(null, "r");
+						rowNum = r != null ? Integer.parseInt(r) : rowNum + 1;
+						values = new ArrayList<>();
+						column = -1;
+						break;
+					case "c":
+						String ref = xml.getAttributeValue(null, "r");
+						column = ref != null ? columnOf(ref) : column + 1;
+						type = xml.getAttributeValue(null, "t");
+						style = xml.getAttributeValue(null, "s");
+						text = null;
+						break;
+					case "v":
+					case "t":
+						// <t> only occurs in inline strings, possibly split into rich-text runs
+						if (text == null) {
+							text = new StringBuilder();
+						}
+						text.append(xml.getElementText());
+						break;
+					default:
+						break;
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					if ("c".equals(xml.getLocalName()) && values != null) {
+						while (values.size() <= column) {
+							values.add(null);
+						}
+						values.set(column, text == null ? null : convert(text.toString(), type, style));
+					} else if ("row".equals(xml.getLocalName())) {
+						return values;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			try {
+				xml.close();
+				in.close();
+			} catch (XMLStreamException | IOException e) {
+				log.debug("Error closing sheet stream: " + e.getMessage());
+			}
+		}
+	}
+
+	private static Map<String, Integer> toHeader(List<Object> values) {
+		Map<String, Integer> header = new LinkedHashMap<>();
+		for (int i = 0; i < values.size(); i++) {
+			Object name = values.get(i);
+			if (name != null && !name.toString().trim().isEmpty()) {
+				header.putIfAbsent(name.toString().trim(), i);
+			}
+		}
+		return Collections.unmodifiableMap(header);
+	}
+
+	private static int columnOf(String cellRef) {
+		int end = 0;
+		while (end < cellRef.length() && Character.isLetter(cellRef.charAt(end))) {
+			end++;
+		}
+		return CellReference.convertColStringToIndex(cellRef.substring(0, end));
+	}
+
+	private Object convert(String raw, String type, String style) {
+		if (type == null || "n".equals(type)) {
+			if (raw.isEmpty()) {
+				return null;
+			}
+			double number = Double.parseDouble(raw);
+			return style != null && isDateStyle(Integer.parseInt(style)) ? DateUtil.getLocalDateTime(number) : number;
+		}
+		switch (type) {
+		case "s":
+			return sharedStrings.getItemAt(Integer.parseInt(raw)).getString();
+		case "b":
+			return "1".equals(raw);
+		default:
+			// inlineStr, str (formula result) and e (error) stay text
+			return raw;
+		}
+	}
+
+	private boolean isDateStyle(int styleIndex) {
+		return dateStyles.computeIfAbsent(styleIndex, i -> {
+			XSSFCellStyle cellStyle = styles.getStyleAt(i);
+			return cellStyle != null
+					&& DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+		});
+	}
+
+	public static void main(String[] args) throws IOException {
+		// Specify the path to your Excel file (first argument, or excelPath from Config.properties)
+		Path path = Paths.get(args.length > 0 ? args[0] : ConfigReader.getProperty("excelPath"));
+		String sheet = args.length > 1 ? args[1] : null;
+
+		// Stream every row of the sheet and log its cells by header
+		try (ExcelReader excel = new ExcelReader(path); Stream<ExcelRow> rows = excel.rows(sheet)) {
+			rows.forEach(row -> log.debug(row.toString()));
+		}
 	}
 }
@@ -0,0 +1,114 @@
+package com.utility;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One data row of a sheet, with values looked up by header name.
+ * <p>
+ * Cell values are already typed by {@link ExcelReader}: String, Double, Boolean or
+ * LocalDateTime (for date-formatted numbers). Empty cells are null.
+ * {@link WebTable#read()} returns HTML table rows in the same shape, with String and
+ * Boolean values.
+ */
+public class ExcelRow {
+
+	private final int rowNum;
+	private final Map<String, Integer> header;
+	private final Object[] values;
+
+	ExcelRow(int rowNum, Map<String, Integer> header, Object[] values) {
+		this.rowNum = rowNum;
+		this.header = header;
+		this.values = values;
+	}
+
+	/** 1-based row number in the sheet, as shown by Excel. */
+	public int getRowNum() {
+		return rowNum;
+	}
+
+	public boolean hasColumn(String column) {
+		return header.containsKey(column);
+	}
+
+	public Object get(String column) {
+		Integer index = header.get(column);
+		if (index == null) {
+			throw new IllegalArgumentException("No column '" + column + "' in header " + header.keySet());
+		}
+		return index < values.length ? values[index] : null;
+	}
+
+	public String getString(String column) {
+		Object value = get(column);
+		if (value instanceof Double) {
+			double d = (Double) value;
+			// whole numbers read back as "42", not "42.0"
+			if (d == Math.rint(d) && !Double.isInfinite(d)) {
+				return String.valueOf((long) d);
+			}
+		}
+		return value == null ? null : value.toString();
+	}
+
+	public Double getDouble(String column) {
+		Object value = get(column);
+		if (value == null || value instanceof Double) {
+			return (Double) value;
+		}
+		String text = value.toString().trim();
+		return text.isEmpty() ? null : Double.valueOf(text);
+	}
+
+	public Integer getInt(String column) {
+		Double value = getDouble(column);
+		return value == null ? null : value.intValue();
+	}
+
+	public Long getLong(String column) {
+		Double value = getDouble(column);
+		return value == null ? null : value.longValue();
+	}
+
+	public Boolean getBoolean(String column) {
+		Object value = get(column);
+		if (value == null || value instanceof Boolean) {
+			return (Boolean) value;
+		}
+		return Boolean.valueOf(value.toString().trim());
+	}
+
+	public LocalDateTime getDate(String column) {
+		Object value = get(column);
+		if (value == null || value instanceof LocalDateTime) {
+			return (LocalDateTime) value;
+		}
+		return LocalDateTime.parse(value.toString().trim());
+	}
+
+	/** Header name to value, in column order. */
+	public Map<String, Object> asMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (Map.Entry<String, Integer> column : header.entrySet()) {
+			map.put(column.getKey(), column.getValue() < values.length ? values[column.getValue()] : null);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	boolean isEmpty() {
+		for (Object value : values) {
+			if (value != null && !value.toString().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "Row " + rowNum + " " + asMap();
+	}
+}
@@ -1,34 +1,77 @@
 package com.utility;
 
+import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 
 public class ExtentLogger {
 
+    // Off when scenarios run without the Extent adapter plugin (e.g. the monitor daemon)
+    private static volatile boolean enabled = true;
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
     public static void extentInfo(String message) {
+        if (!enabled) return;
         ExtentCucumberAdapter.addTestStepLog("[INFO] " + message + "\n");
     }
 
     public static void extentPass(String message) {
+        if (!enabled) return;
         ExtentCucumberAdapter.addTestStepLog("[PASS] " + message + "\n");
     }
 
     public static void extentFail(String message) {
+        if (!enabled) return;
         ExtentCucumberAdapter.addTestStepLog("[FAIL] " + message + "\n");
     }
 
     public static void extentError(String message) {
+        if (!enabled) return;
         ExtentCucumberAdapter.addTestStepLog("[ERROR] " + message + "\n");
     }
 
     public static void extentWarning(String message) {
+        if (!enabled) return;
         ExtentCucumberAdapter.addTestStepLog("[WARNING] " + message + "\n");
     }
 
+    /**
+     * Log a table (first row is the header) as a single step log entry.
+     */
+    public static void extentTable(String[][] rows) {
+        if (!enabled) return;
+        ExtentCucumberAdapter.addTestStepLog(MarkupHelper.createTable(rows).getMarkup());
+    }
+
+    /**
+     * Tag the current scenario node with its browser (category and device), so matrix runs of
+     * the same scenario can be told apart and filtered in the report.
+     */
+    public static void assignBrowser(String browser) {
+        if (!enabled) return;
+        try {
+            ExtentTest scenario = ExtentCucumberAdapter.getCurrentScenario();
+            if (scenario != null) {
+                scenario.assignCategory(browser).assignDevice(browser);
+            }
+        } catch (Exception e) {
+            LoggerHelper.getLogger(ExtentLogger.class).debug("Browser not assigned in Extent report: " + e.getMessage());
+        }
+    }
+
     /**
      * Attach screenshot to Extent report.
      * Only pass **file name**, not folder. It will resolve using screenshot.rel.path.
      */
     public static void screenshot(String screenshotFileName) {
+        if (!enabled) return;
         try {
             ExtentCucumberAdapter.addTestStepScreenCaptureFromPath(screenshotFileName);
         } catch (Exception e) {
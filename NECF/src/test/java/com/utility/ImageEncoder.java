@@ -0,0 +1,84 @@
+package com.utility;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Downscales and re-encodes screenshots for the report and for mail attachments.
+ */
+public class ImageEncoder {
+
+    private ImageEncoder() {
+    }
+
+    /**
+     * Re-encodes an image as {@code format} ("png" or "jpg"), no wider than {@code maxWidth}
+     * (0 keeps the original size). Returns the input unchanged when nothing would change or
+     * the bytes cannot be decoded.
+     */
+    public static byte[] encode(byte[] image, String format, int maxWidth, float jpegQuality) throws IOException {
+        boolean jpeg = isJpeg(format);
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+        if (source == null) {
+            return image;
+        }
+        boolean resize = maxWidth > 0 && source.getWidth() > maxWidth;
+        if (!resize && !jpeg) {
+            return image;
+        }
+
+        int width = resize ? maxWidth : source.getWidth();
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        // JPEG has no alpha channel, so always draw onto an RGB canvas
+        BufferedImage target = new BufferedImage(width, height,
+                jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.length / 2);
+        if (!jpeg) {
+            ImageIO.write(target, "png", out);
+            return out.toByteArray();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) {
+            return image;
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(target, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    public static boolean isJpeg(String format) {
+        return "jpg".equalsIgnoreCase(format) || "jpeg".equalsIgnoreCase(format);
+    }
+
+    public static String extension(String format) {
+        return isJpeg(format) ? "jpg" : "png";
+    }
+}
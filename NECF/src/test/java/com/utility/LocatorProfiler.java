@@ -0,0 +1,398 @@
+package com.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.service.ExtentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+
+/**
+ * Measures what each page-object locator costs.
+ * <p>
+ * With {@code locator.profile.enabled=true}, {@link #initElements} builds the
+ * {@code @FindBy} proxies on a locator that times every lookup and counts how many
+ * nodes matched. {@link WaitEngine} reports the time, poll count and final match count of
+ * every {@code By} wait, and of every check of a {@link WaitEngine#verifyAll} batch, under the
+ * page object initialised last on the thread. Registered as a Cucumber plugin, the profiler
+ * ranks locators by total time when the run finishes. It flags locators that are slow
+ * ({@code locator.profile.slow.ms}) or match more than {@code locator.profile.max.matches}
+ * nodes. The ranking is logged, written to {@code target/locators/locator-profile.json} and
+ * added to the Extent report.
+ * <p>
+ * Profiling resolves {@code @FindBy} fields with {@code findElements}, so a lookup costs the
+ * same single round-trip and returns the first match as before.
+ */
+public class LocatorProfiler implements ConcurrentEventListener {
+
+    private static final Logger log = LoggerHelper.getLogger(LocatorProfiler.class);
+    private static final String OUTPUT_FILE = "target/locators/locator-profile.json";
+    private static final String NO_PAGE = "(no page)";
+
+    private static final boolean enabled = ConfigReader.getBoolean("locator.profile.enabled", false);
+    private static final long slowNanos = ConfigReader
+            .getDuration("locator.profile.slow.ms", TimeUnit.MILLISECONDS, 250).toNanos();
+    private static final int maxMatches = ConfigReader.getInt("locator.profile.max.matches", 1);
+
+    private static final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    // locator most recently resolved on this thread; a WebElement wait is charged to it
+    private static final ThreadLocal<Stats> lastResolved = new ThreadLocal<>();
+    // page object most recently initialised on this thread; By waits and checks are charged to it
+    private static final ThreadLocal<String> currentPage = new ThreadLocal<>();
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> lookupTime = MetricsRegistry
+            .histogram("necf_locator_lookup_seconds", "Time to resolve a page-object locator", "page", "field");
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Drop-in replacement for {@code PageFactory.initElements(driver, page)}. Also makes the
+     * page the thread's current page: {@code By} waits and {@link ElementCheck}s that follow
+     * are reported under its name.
+     */
+    public static void initElements(WebDriver driver, Object page) {
+        currentPage.set(page.getClass().getSimpleName());
+        if (enabled) {
+            PageFactory.initElements(new ProfilingLocatorFactory(driver, page.getClass().getSimpleName()), page);
+        } else {
+            PageFactory.initElements(driver, page);
+        }
+    }
+
+    // -----------------------------------------
+    // RECORDING
+    // -----------------------------------------
+    /**
+     * Called by {@link WaitEngine} before a wait starts.
+     */
+    static void waitStarted() {
+        if (enabled) {
+            lastResolved.remove();
+        }
+    }
+
+    /**
+     * Charges a finished wait to {@code locator} on the current page, or for waits on a
+     * {@code @FindBy} element, to the field resolved while waiting.
+     *
+     * @param polls   number of times the condition was evaluated
+     * @param matches nodes the locator matched when the wait ended; -1 when not known
+     */
+    static void waitFinished(By locator, long nanos, int polls, boolean timedOut, int matches) {
+        if (!enabled) {
+            return;
+        }
+        Stats target = locator != null ? byLocator(locator.toString(), locator) : lastResolved.get();
+        if (target != null) {
+            target.waited(nanos, polls, timedOut);
+            if (locator != null && matches >= 0) {
+                target.matched(matches);
+            }
+        }
+    }
+
+    /**
+     * Names the current page's entry for the check's locator after the check, unless the
+     * locator has been reported under another name already.
+     */
+    static void declare(ElementCheck check) {
+        if (enabled) {
+            byLocator(check.getName(), check.getLocator());
+        }
+    }
+
+    /**
+     * Records one check of a batch evaluated inside the page.
+     *
+     * @param nanos   time until the condition held, or the timeout
+     * @param matches nodes the locator matched when the batch ended
+     */
+    static void checked(ElementCheck check, long nanos, int matches, boolean timedOut) {
+        if (!enabled) {
+            return;
+        }
+        Stats target = byLocator(check.getName(), check.getLocator());
+        target.waited(nanos, 1, timedOut);
+        target.matched(matches);
+    }
+
+    private static Stats byLocator(String field, By by) {
+        String page = currentPage.get() != null ? currentPage.get() : NO_PAGE;
+        return stats.computeIfAbsent(page + "\tBy:" + by, k -> new Stats(page, field, by.toString()));
+    }
+
+    private static Stats stats(String page, String field, By by) {
+        return stats.computeIfAbsent(page + "\t" + field, k -> new Stats(page, field, by.toString()));
+    }
+
+    // -----------------------------------------
+    // REPORT
+    // -----------------------------------------
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> currentPage.remove());
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onRunFinished() {
+        if (!enabled || stats.isEmpty()) {
+            return;
+        }
+        List<Stats> ranked = new ArrayList<>(stats.values());
+        ranked.sort((a, b) -> Long.compare(b.totalNanos(), a.totalNanos()));
+
+        String[][] table = toTable(ranked);
+        StringBuilder text = new StringBuilder("Locator profile (most expensive first):");
+        for (String[] row : table) {
+            text.append(String.format("%n  %-12s %-20s %8s %8s %8s %7s %6s %8s %7s %8s  %s", row[0], row[1], row[3],
+                    row[4], row[5], row[6], row[7], row[8], row[9], row[10], row[11]));
+        }
+        log.info(text.toString());
+        for (Stats s : ranked) {
+            if (!s.flags().isEmpty()) {
+                log.warn("⚠️ Locator " + s.page + "." + s.field + " " + s.flags() + ": " + s.locator);
+            }
+        }
+
+        writeJson(ranked);
+        addToExtent(table);
+    }
+
+    private String[][] toTable(List<Stats> ranked) {
+        String[][] table = new String[ranked.size() + 1][];
+        table[0] = new String[] { "Page", "Field", "Locator", "Lookups", "Avg ms", "Max ms", "Matches", "Waits",
+                "Wait ms", "Retries", "Total ms", "Flags" };
+        for (int i = 0; i < ranked.size(); i++) {
+            Stats s = ranked.get(i);
+            table[i + 1] = new String[] { s.page, s.field, s.locator, String.valueOf(s.lookups.sum()),
+                    String.valueOf(s.avgLookupMillis()), String.valueOf(millis(s.maxLookup.get())),
+                    String.valueOf(s.matches.get()), String.valueOf(s.waits.sum()),
+                    String.valueOf(millis(s.waitNanos.sum())), String.valueOf(s.retries.sum()),
+                    String.valueOf(millis(s.totalNanos())), String.join(",", s.flags()) };
+        }
+        return table;
+    }
+
+    private void writeJson(List<Stats> ranked) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Stats s : ranked) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", s.page);
+            row.put("field", s.field);
+            row.put("locator", s.locator);
+            row.put("lookups", s.lookups.sum());
+            row.put("lookupAvgMs", s.avgLookupMillis());
+            row.put("lookupMaxMs", millis(s.maxLookup.get()));
+            row.put("notFound", s.misses.sum());
+            row.put("maxMatches", s.matches.get());
+            row.put("waits", s.waits.sum());
+            row.put("waitMs", millis(s.waitNanos.sum()));
+            row.put("retries", s.retries.sum());
+            row.put("timeouts", s.timeouts.sum());
+            row.put("totalMs", millis(s.totalNanos()));
+            row.put("flags", s.flags());
+            rows.add(row);
+        }
+        try {
+            File file = new File(OUTPUT_FILE);
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, rows);
+            log.info("✔ Locator profile written to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write locator profile: " + e.getMessage());
+        }
+    }
+
+    private void addToExtent(String[][] table) {
+        if (!ExtentLogger.isEnabled()) {
+            return;
+        }
+        try {
+            ExtentReports extent = ExtentService.getInstance();
+            extent.createTest("Locator Profile", "Page-object locators, most expensive first")
+                    .info(MarkupHelper.createTable(table));
+        } catch (Exception e) {
+            log.debug("Locator profile not added to Extent report: " + e.getMessage());
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    // -----------------------------------------
+    // PAGEFACTORY HOOK
+    // -----------------------------------------
+    private static final class ProfilingLocatorFactory implements ElementLocatorFactory {
+        private final SearchContext context;
+        private final String page;
+
+        ProfilingLocatorFactory(SearchContext context, String page) {
+            this.context = context;
+            this.page = page;
+        }
+
+        @Override
+        public ElementLocator createLocator(Field field) {
+            Annotations annotations = new Annotations(field);
+            By by = annotations.buildBy();
+            return new ProfilingLocator(context, by, annotations.isLookupCached(), stats(page, field.getName(), by));
+        }
+    }
+
+    private static final class ProfilingLocator implements ElementLocator {
+        private final SearchContext context;
+        private final By by;
+        private final boolean cacheLookup;
+        private final Stats stats;
+        private WebElement cachedElement;
+        private List<WebElement> cachedList;
+
+        ProfilingLocator(SearchContext context, By by, boolean cacheLookup, Stats stats) {
+            this.context = context;
+            this.by = by;
+            this.cacheLookup = cacheLookup;
+            this.stats = stats;
+        }
+
+        @Override
+        public WebElement findElement() {
+            if (cachedElement != null) {
+                return cachedElement;
+            }
+            List<WebElement> found = resolve();
+            if (found.isEmpty()) {
+                throw new NoSuchElementException("Cannot locate an element using " + by);
+            }
+            if (cacheLookup) {
+                cachedElement = found.get(0);
+            }
+            return found.get(0);
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            if (cachedList != null) {
+                return cachedList;
+            }
+            List<WebElement> found = resolve();
+            if (cacheLookup) {
+                cachedList = found;
+            }
+            return found;
+        }
+
+        private List<WebElement> resolve() {
+            long start = System.nanoTime();
+            List<WebElement> found = context.findElements(by);
+            long nanos = System.nanoTime() - start;
+            stats.looked(nanos, found.size());
+            lookupTime.labels(stats.page, stats.field).observeNanos(nanos);
+            lastResolved.set(stats);
+            return found;
+        }
+
+        @Override
+        public String toString() {
+            return "Profiled locator " + stats.page + "." + stats.field + " '" + by + "'";
+        }
+    }
+
+    private static final class Stats {
+        final String page;
+        final String field;
+        final String locator;
+        final LongAdder lookups = new LongAdder();
+        final LongAdder lookupNanos = new LongAdder();
+        final LongAccumulator maxLookup = new LongAccumulator(Math::max, 0);
+        final LongAdder misses = new LongAdder();
+        final LongAccumulator matches = new LongAccumulator(Math::max, 0);
+        final LongAdder waits = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+
+        Stats(String page, String field, String locator) {
+            this.page = page;
+            this.field = field;
+            this.locator = locator;
+        }
+
+        void looked(long nanos, int found) {
+            lookups.increment();
+            lookupNanos.add(nanos);
+            maxLookup.accumulate(nanos);
+            matched(found);
+        }
+
+        void matched(int found) {
+            matches.accumulate(found);
+            if (found == 0) {
+                misses.increment();
+            }
+        }
+
+        void waited(long nanos, int polls, boolean timedOut) {
+            waits.increment();
+            waitNanos.add(nanos);
+            retries.add(Math.max(0, polls - 1));
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+
+        // lookups made inside a wait are part of the wait time already
+        long totalNanos() {
+            return Math.max(lookupNanos.sum(), waitNanos.sum());
+        }
+
+        long avgLookupMillis() {
+            long n = lookups.sum();
+            return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(lookupNanos.sum() / n);
+        }
+
+        List<String> flags() {
+            List<String> flags = new ArrayList<>();
+            long n = lookups.sum();
+            if (n > 0 && lookupNanos.sum() / n >= slowNanos) {
+                flags.add("SLOW");
+            }
+            if (matches.get() > maxMatches) {
+                flags.add("AMBIGUOUS(" + matches.get() + ")");
+            }
+            if (timeouts.sum() > 0) {
+                flags.add("TIMEOUT");
+            }
+            return flags;
+        }
+    }
+}
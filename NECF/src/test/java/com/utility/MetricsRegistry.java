@@ -0,0 +1,237 @@
+package com.utility;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process counters, gauges and histograms exported in OpenMetrics text format.
+ * <p>
+ * Recording never takes a lock: values live in {@link LongAdder}/{@link DoubleAdder}
+ * cells and labelled children are looked up in a {@link ConcurrentHashMap}. Hot call
+ * sites should keep the child returned by {@link Family#labels(String...)} in a field.
+ */
+public class MetricsRegistry {
+
+    /** Default histogram buckets, in seconds. */
+    public static final double[] DEFAULT_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60 };
+
+    private static final Map<String, Family<?>> families = new ConcurrentSkipListMap<>();
+
+    public static Family<Counter> counter(String name, String help, String... labelNames) {
+        return register(new Family<>(name, help, "counter", labelNames, Counter::new));
+    }
+
+    public static Family<Gauge> gauge(String name, String help, String... labelNames) {
+        return register(new Family<>(name, help, "gauge", labelNames, Gauge::new));
+    }
+
+    public static Family<Histogram> histogram(String name, String help, String... labelNames) {
+        return histogram(name, help, DEFAULT_BUCKETS, labelNames);
+    }
+
+    public static Family<Histogram> histogram(String name, String help, double[] buckets, String... labelNames) {
+        double[] bounds = buckets.clone();
+        Arrays.sort(bounds);
+        return register(new Family<>(name, help, "histogram", labelNames, () -> new Histogram(bounds)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Metric> Family<T> register(Family<T> family) {
+        Family<?> existing = families.putIfAbsent(family.name, family);
+        return existing != null ? (Family<T>) existing : family;
+    }
+
+    /**
+     * Renders every registered metric, terminated by {@code # EOF}.
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family<?> family : families.values()) {
+            family.write(out);
+        }
+        out.append("# EOF\n");
+        return out.toString();
+    }
+
+    // -----------------------------------------
+    // METRIC TYPES
+    // -----------------------------------------
+    public interface Metric {
+        void write(StringBuilder out, String name, String labels);
+    }
+
+    public static final class Counter implements Metric {
+        private final DoubleAdder value = new DoubleAdder();
+
+        public void inc() {
+            value.add(1);
+        }
+
+        public void inc(double amount) {
+            value.add(amount);
+        }
+
+        public double get() {
+            return value.sum();
+        }
+
+        @Override
+        public void write(StringBuilder out, String name, String labels) {
+            sample(out, name + "_total", labels, value.sum());
+        }
+    }
+
+    public static final class Gauge implements Metric {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToLongBits(0));
+
+        public void set(double value) {
+            bits.set(Double.doubleToLongBits(value));
+        }
+
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+
+        @Override
+        public void write(StringBuilder out, String name, String labels) {
+            sample(out, name, labels, get());
+        }
+    }
+
+    public static final class Histogram implements Metric {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < bounds.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observe(double value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    buckets[i].increment();
+                    break;
+                }
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1_000_000_000.0);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        @Override
+        public void write(StringBuilder out, String name, String labels) {
+            long cumulative = 0;
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                sample(out, name + "_bucket", prefix + "le=\"" + bounds[i] + "\"", cumulative);
+            }
+            long total = count.sum();
+            sample(out, name + "_bucket", prefix + "le=\"+Inf\"", total);
+            sample(out, name + "_count", labels, total);
+            sample(out, name + "_sum", labels, sum.sum());
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    // -----------------------------------------
+    // FAMILY
+    // -----------------------------------------
+    /**
+     * A named metric with zero or more label dimensions.
+     */
+    public static final class Family<T extends Metric> {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final String[] labelNames;
+        private final Supplier<T> factory;
+        private final Map<String, T> children = new ConcurrentHashMap<>();
+        private final Map<String, String> renderedLabels = new ConcurrentHashMap<>();
+
+        Family(String name, String help, String type, String[] labelNames, Supplier<T> factory) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelNames = labelNames;
+            this.factory = factory;
+        }
+
+        /**
+         * Child for the given label values, created on first use.
+         */
+        public T labels(String... values) {
+            if (values.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " expects labels " + Arrays.toString(labelNames));
+            }
+            String key = values.length == 0 ? "" : String.join("\u0000", values);
+            T child = children.get(key);
+            if (child == null) {
+                child = children.computeIfAbsent(key, k -> {
+                    renderedLabels.put(k, render(values));
+                    return factory.get();
+                });
+            }
+            return child;
+        }
+
+        private String render(String[] values) {
+            StringBuilder labels = new StringBuilder();
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    labels.append(',');
+                }
+                labels.append(labelNames[i]).append("=\"").append(escape(values[i])).append('"');
+            }
+            return labels.toString();
+        }
+
+        private static String escape(String value) {
+            return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+
+        void write(StringBuilder out) {
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            for (Map.Entry<String, T> child : children.entrySet()) {
+                child.getValue().write(out, name, renderedLabels.getOrDefault(child.getKey(), ""));
+            }
+        }
+    }
+}
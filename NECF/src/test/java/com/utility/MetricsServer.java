@@ -0,0 +1,74 @@
+package com.utility;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP endpoint serving {@link MetricsRegistry#scrape()} on {@code /metrics}
+ * for Prometheus/OpenMetrics scrapers.
+ */
+public class MetricsServer {
+
+    private static final Logger log = LoggerHelper.getLogger(MetricsServer.class);
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static HttpServer server;
+
+    public static boolean isEnabled() {
+        return ConfigReader.getBoolean("metrics.server.enabled", false);
+    }
+
+    public static synchronized void start() {
+        if (server != null) {
+            return;
+        }
+        int port = ConfigReader.getInt("metrics.server.port", 9464);
+        try {
+            HttpServer created = HttpServer.create(new InetSocketAddress(port), 0);
+            created.createContext("/metrics", MetricsServer::handle);
+            created.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-server");
+                t.setDaemon(true);
+                return t;
+            }));
+            created.start();
+            server = created;
+            log.info("✔ Metrics endpoint listening on http://localhost:" + port + "/metrics");
+        } catch (IOException e) {
+            log.error("Could not start metrics endpoint on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+            log.info("Metrics endpoint stopped");
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = MetricsRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
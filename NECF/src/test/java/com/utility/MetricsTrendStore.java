@@ -0,0 +1,470 @@
+package com.utility;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Append-only history of page timings, used for trend summaries and regression checks.
+ * <p>
+ * Samples are written as JSON lines into segment files ({@code segment-<startMillis>.jsonl})
+ * under {@code metrics.store.dir}. A new segment starts every UTC day or once the active one
+ * reaches {@code metrics.store.segment.max.bytes}. Segments that fall entirely outside the
+ * rolling window are compacted into daily percentile rows in {@code rollup.jsonl} when the
+ * store opens and on every segment rollover. Queries run against an in-memory index of the
+ * window that only reads lines appended since the previous query, so their cost does not
+ * grow with the history.
+ */
+public class MetricsTrendStore {
+
+    private static final Logger log = LoggerHelper.getLogger(MetricsTrendStore.class);
+
+    private static final DateTimeFormatter RUN_ID_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final AtomicLong runs = new AtomicLong();
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jsonl";
+    private static final String ROLLUP_FILE = "rollup.jsonl";
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static volatile MetricsTrendStore instance;
+
+    private final Path dir;
+    private final long segmentMaxBytes;
+    private final long windowMillis;
+    private final double regressionMargin;
+    private final int minSamples;
+
+    private Path activeSegment;
+    // the rolling window's samples per page and metric, and how far each segment has been read
+    private final Map<String, Deque<Sample>> window = new HashMap<>();
+    private final Map<Path, Long> offsets = new HashMap<>();
+    // samples of the current run are left out of its own baseline
+    private volatile String runId = newRunId();
+
+    private MetricsTrendStore() {
+        this.dir = Paths.get(ConfigReader.getProperty("metrics.store.dir", "target/metrics-history"));
+        this.segmentMaxBytes = ConfigReader.getLong("metrics.store.segment.max.bytes", 1048576);
+        this.windowMillis = ConfigReader.getDuration("metrics.store.window.days", TimeUnit.DAYS, 7).toMillis();
+        this.regressionMargin = ConfigReader.getDouble("metrics.regression.margin", 0.20);
+        this.minSamples = ConfigReader.getInt("metrics.regression.min.samples", 5);
+        try {
+            Files.createDirectories(dir);
+            compact();
+        } catch (IOException e) {
+            log.warn("Metrics store unavailable at " + dir.toAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    public static MetricsTrendStore getInstance() {
+        if (instance == null) {
+            synchronized (MetricsTrendStore.class) {
+                if (instance == null) {
+                    instance = new MetricsTrendStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * A new run id, unique per JVM and call.
+     */
+    public static String newRunId() {
+        return RUN_ID_TIME.format(Instant.now()) + "-" + ProcessHandle.current().pid() + "-" + runs.incrementAndGet();
+    }
+
+    /**
+     * The run that {@link #record(String, String, double)} and
+     * {@link #checkRegression(String, String, double)} use. One per JVM, unless a long-lived
+     * process (the monitor daemon) starts a new one for each cycle with {@link #startRun()}.
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Starts a new run, so samples from earlier runs of this JVM count towards the baseline.
+     */
+    public String startRun() {
+        runId = newRunId();
+        return runId;
+    }
+
+    // -----------------------------------------
+    // WRITE
+    // -----------------------------------------
+    public void record(String page, String metric, double value) {
+        record(runId, page, metric, value);
+    }
+
+    public synchronized void record(String run, String page, String metric, double value) {
+        long now = System.currentTimeMillis();
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("t", now);
+        sample.put("r", run);
+        sample.put("p", page);
+        sample.put("m", metric);
+        sample.put("v", value);
+        try {
+            Path segment = segmentFor(now);
+            try (Writer writer = Files.newBufferedWriter(segment, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                writer.write(mapper.writeValueAsString(sample));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            log.warn("Could not record " + metric + " for " + page + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records the value, then compares it against the window's median from previous runs.
+     */
+    public Regression recordAndCheck(String page, String metric, double value) {
+        String run = runId;
+        record(run, page, metric, value);
+        return checkRegression(run, page, metric, value);
+    }
+
+    // -----------------------------------------
+    // QUERY
+    // -----------------------------------------
+    public Summary summarize(String page, String metric) {
+        return new Summary(page, metric, samples(page, metric, null));
+    }
+
+    public Regression checkRegression(String page, String metric, double current) {
+        return checkRegression(runId, page, metric, current);
+    }
+
+    /**
+     * Compares the value with the window median of every run except {@code run}.
+     */
+    public Regression checkRegression(String run, String page, String metric, double current) {
+        Summary baseline = new Summary(page, metric, samples(page, metric, run));
+        return new Regression(baseline, current, regressionMargin, minSamples);
+    }
+
+    private synchronized List<Double> samples(String page, String metric, String excludedRun) {
+        long windowStart = System.currentTimeMillis() - windowMillis;
+        refresh(windowStart);
+        List<Double> values = new ArrayList<>();
+        Deque<Sample> series = window.get(page + "\t" + metric);
+        if (series != null) {
+            for (Sample sample : series) {
+                if (sample.time >= windowStart && !(excludedRun != null && excludedRun.equals(sample.run))) {
+                    values.add(sample.value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Brings the in-memory window up to date: reads only the bytes appended to the window's
+     * segments since the last call (by this or another JVM) and drops samples that left the
+     * window. A query therefore costs the new lines, not the whole history.
+     */
+    private void refresh(long windowStart) {
+        List<Path> segments = listSegments();
+        offsets.keySet().retainAll(segments);
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            // a segment only holds samples older than the start of the next one
+            if (i + 1 < segments.size() && startOf(segments.get(i + 1)) < windowStart) {
+                offsets.remove(segment);
+                continue;
+            }
+            long offset = offsets.getOrDefault(segment, 0L);
+            try (SeekableByteChannel channel = Files.newByteChannel(segment, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size <= offset) {
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) (size - offset));
+                channel.position(offset);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                // stop at the last complete line; a line being written is read next time
+                int end = buffer.position();
+                while (end > 0 && buffer.get(end - 1) != '\n') {
+                    end--;
+                }
+                String lines = new String(buffer.array(), 0, end, StandardCharsets.UTF_8);
+                for (String line : lines.split("\n")) {
+                    if (!line.isEmpty()) {
+                        index(mapper.readTree(line), windowStart);
+                    }
+                }
+                offsets.put(segment, offset + end);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable metrics segment " + segment + ": " + e.getMessage());
+            }
+        }
+        for (Iterator<Deque<Sample>> it = window.values().iterator(); it.hasNext();) {
+            Deque<Sample> series = it.next();
+            while (!series.isEmpty() && series.peekFirst().time < windowStart) {
+                series.pollFirst();
+            }
+            if (series.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void index(JsonNode node, long windowStart) {
+        long time = node.path("t").asLong();
+        if (time < windowStart) {
+            return;
+        }
+        window.computeIfAbsent(node.path("p").asText() + "\t" + node.path("m").asText(), k -> new ArrayDeque<>())
+                .addLast(new Sample(time, node.path("r").asText(), node.path("v").asDouble()));
+    }
+
+    private static final class Sample {
+        final long time;
+        final String run;
+        final double value;
+
+        Sample(long time, String run, double value) {
+            this.time = time;
+            this.run = run;
+            this.value = value;
+        }
+    }
+
+    // -----------------------------------------
+    // SEGMENTS
+    // -----------------------------------------
+    private Path segmentFor(long now) throws IOException {
+        if (activeSegment == null) {
+            List<Path> segments = listSegments();
+            activeSegment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        }
+        if (activeSegment == null || Files.size(activeSegment) >= segmentMaxBytes
+                || !dayOf(startOf(activeSegment)).equals(dayOf(now))) {
+            Files.createDirectories(dir);
+            activeSegment = dir.resolve(SEGMENT_PREFIX + now + SEGMENT_SUFFIX);
+            // a long-lived process (the monitor daemon) rolls old segments up as it goes
+            try {
+                compact();
+            } catch (IOException e) {
+                log.warn("Could not compact metrics segments: " + e.getMessage());
+            }
+        }
+        return activeSegment;
+    }
+
+    private List<Path> listSegments() {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        } catch (IOException e) {
+            log.warn("Could not list metrics segments: " + e.getMessage());
+        }
+        segments.sort((a, b) -> Long.compare(startOf(a), startOf(b)));
+        return segments;
+    }
+
+    private static long startOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static LocalDate dayOf(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC).toLocalDate();
+    }
+
+    /**
+     * Folds every segment that ends before the rolling window into daily percentile rows
+     * and deletes it. Runs when the store is opened and whenever a new segment is started.
+     */
+    public synchronized void compact() throws IOException {
+        long windowStart = System.currentTimeMillis() - windowMillis;
+        List<Path> segments = listSegments();
+        Map<String, List<Double>> daily = new TreeMap<>();
+        List<Path> compacted = new ArrayList<>();
+
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (startOf(segments.get(i + 1)) >= windowStart) {
+                break;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(segments.get(i), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    JsonNode node = mapper.readTree(line);
+                    String key = dayOf(node.path("t").asLong()) + "\t" + node.path("p").asText() + "\t"
+                            + node.path("m").asText();
+                    daily.computeIfAbsent(key, k -> new ArrayList<>()).add(node.path("v").asDouble());
+                }
+            }
+            compacted.add(segments.get(i));
+        }
+        if (compacted.isEmpty()) {
+            return;
+        }
+
+        try (Writer writer = Files.newBufferedWriter(dir.resolve(ROLLUP_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map.Entry<String, List<Double>> entry : daily.entrySet()) {
+                String[] key = entry.getKey().split("\t", 3);
+                Summary summary = new Summary(key[1], key[2], entry.getValue());
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("day", key[0]);
+                row.put("p", key[1]);
+                row.put("m", key[2]);
+                row.put("n", summary.getCount());
+                row.put("p50", summary.getP50());
+                row.put("p95", summary.getP95());
+                row.put("p99", summary.getP99());
+                writer.write(mapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+        }
+        for (Path segment : compacted) {
+            Files.deleteIfExists(segment);
+        }
+        log.info("Compacted " + compacted.size() + " metrics segment(s) into " + daily.size() + " daily rollup row(s)");
+    }
+
+    /**
+     * Nearest-rank percentiles over a set of samples.
+     */
+    public static final class Summary {
+        private final String page;
+        private final String metric;
+        private final List<Double> sorted;
+
+        Summary(String page, String metric, List<Double> values) {
+            this.page = page;
+            this.metric = metric;
+            List<Double> copy = new ArrayList<>(values);
+            Collections.sort(copy);
+            this.sorted = copy;
+        }
+
+        public int getCount() {
+            return sorted.size();
+        }
+
+        public double percentile(double p) {
+            if (sorted.isEmpty()) {
+                return Double.NaN;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+            return sorted.get(Math.min(sorted.size() - 1, Math.max(0, rank - 1)));
+        }
+
+        public double getP50() {
+            return percentile(50);
+        }
+
+        public double getP95() {
+            return percentile(95);
+        }
+
+        public double getP99() {
+            return percentile(99);
+        }
+
+        @Override
+        public String toString() {
+            if (sorted.isEmpty()) {
+                return metric + " for " + page + ": no history";
+            }
+            return String.format("%s for %s (n=%d): p50=%.0f, p95=%.0f, p99=%.0f", metric, page, getCount(),
+                    getP50(), getP95(), getP99());
+        }
+    }
+
+    /**
+     * Outcome of comparing a value with the window median of earlier runs.
+     */
+    public static final class Regression {
+        private final Summary baseline;
+        private final double current;
+        private final double margin;
+        private final boolean regressed;
+        private final boolean enoughHistory;
+
+        Regression(Summary baseline, double current, double margin, int minSamples) {
+            this.baseline = baseline;
+            this.current = current;
+            this.margin = margin;
+            this.enoughHistory = baseline.getCount() >= minSamples;
+            this.regressed = enoughHistory && current > baseline.getP50() * (1 + margin);
+        }
+
+        public Summary getBaseline() {
+            return baseline;
+        }
+
+        public double getCurrent() {
+            return current;
+        }
+
+        public boolean hasEnoughHistory() {
+            return enoughHistory;
+        }
+
+        public boolean isRegression() {
+            return regressed;
+        }
+
+        @Override
+        public String toString() {
+            if (!enoughHistory) {
+                return "Not enough history for " + baseline.metric + " (" + baseline.getCount() + " sample(s))";
+            }
+            return String.format("%s %s: current %.0f vs baseline p50 %.0f (allowed +%.0f%%)",
+                    regressed ? "REGRESSION in" : "No regression in", baseline.metric, current, baseline.getP50(),
+                    margin * 100);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.utility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webdrivermanager.DevToolsSupport;
+
+/**
+ * Records the network traffic of one scenario through the DevTools Network domain.
+ * <p>
+ * Opt in with {@code network.capture.enabled=true}; browsers without DevTools are skipped.
+ * Only timings, sizes, status and cache source are kept (no headers or bodies), for at most
+ * {@code network.capture.max.entries} requests per scenario. Later requests are counted
+ * but not stored. When the scenario ends the traffic is written as a HAR 1.2 file next to
+ * the screenshots, and the {@code network.summary.top} slowest and largest requests are
+ * added to the Extent report.
+ */
+public class NetworkRecorder {
+
+    private static final Logger log = LoggerHelper.getLogger(NetworkRecorder.class);
+
+    private static final boolean enabled = ConfigReader.getBoolean("network.capture.enabled", false);
+    private static final int maxEntries = ConfigReader.getInt("network.capture.max.entries", 2000);
+    private static final int topN = ConfigReader.getInt("network.summary.top", 10);
+
+    private static final ThreadLocal<NetworkRecorder> current = new ThreadLocal<>();
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> requests = MetricsRegistry
+            .counter("necf_network_requests", "Requests recorded by the network recorder, by cache source", "cache");
+
+    private final DevTools devTools;
+    private final List<Entry> entries = new ArrayList<>();
+    // requests still in flight, by CDP requestId
+    private final Map<String, Entry> active = new HashMap<>();
+    private int dropped;
+    private boolean stopped;
+
+    private NetworkRecorder(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts recording for the current thread's scenario; does nothing when disabled or
+     * when the browser has no DevTools.
+     */
+    public static void start(WebDriver driver) {
+        if (!enabled) {
+            return;
+        }
+        DevTools devTools = DevToolsSupport.open(driver);
+        if (devTools == null) {
+            return;
+        }
+        NetworkRecorder recorder = new NetworkRecorder(devTools);
+        try {
+            recorder.subscribe();
+            current.set(recorder);
+        } catch (Exception e) {
+            log.warn("⚠️ Network capture not started: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording, writes the HAR file and adds the summary to the report.
+     *
+     * @param baseName file name without extension
+     * @return the HAR file, or null if nothing was recorded
+     */
+    public static Path stop(String baseName) {
+        NetworkRecorder recorder = current.get();
+        if (recorder == null) {
+            return null;
+        }
+        current.remove();
+        recorder.stopCollecting();
+        return recorder.export(baseName);
+    }
+
+    /**
+     * Requests recorded so far in the current thread's scenario, or -1 when not recording.
+     */
+    public static int requestCount() {
+        NetworkRecorder recorder = current.get();
+        if (recorder == null) {
+            return -1;
+        }
+        synchronized (recorder) {
+            return recorder.entries.size() + recorder.dropped;
+        }
+    }
+
+    /**
+     * Bytes received so far in the current thread's scenario (recorded requests only), or -1
+     * when not recording.
+     */
+    public static long transferredBytes() {
+        NetworkRecorder recorder = current.get();
+        if (recorder == null) {
+            return -1;
+        }
+        synchronized (recorder) {
+            long bytes = 0;
+            for (Entry entry : recorder.entries) {
+                bytes += entry.bytes;
+            }
+            return bytes;
+        }
+    }
+
+    // -----------------------------------------
+    // EVENTS
+    // -----------------------------------------
+    private void subscribe() {
+        devTools.addListener(DevToolsSupport.event("Network.requestWillBeSent"), this::onRequest);
+        devTools.addListener(DevToolsSupport.event("Network.responseReceived"), this::onResponse);
+        devTools.addListener(DevToolsSupport.event("Network.requestServedFromCache"), this::onServedFromCache);
+        devTools.addListener(DevToolsSupport.event("Network.loadingFinished"), this::onFinished);
+        devTools.addListener(DevToolsSupport.event("Network.loadingFailed"), this::onFailed);
+        DevToolsSupport.send(devTools, "Network.enable");
+    }
+
+    /**
+     * Stops collecting. The listeners stay registered until the session is reset on release,
+     * since a network profile may share the DevTools session.
+     */
+    private synchronized void stopCollecting() {
+        stopped = true;
+    }
+
+    // Listeners run on the DevTools connection thread
+    @SuppressWarnings("unchecked")
+    private synchronized void onRequest(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        String id = DevToolsSupport.string(event, "requestId");
+        Entry previous = active.remove(id);
+        Object redirect = event.get("redirectResponse");
+        if (previous != null && redirect instanceof Map) {
+            // a redirect reuses the requestId: close the previous hop
+            previous.response((Map<String, Object>) redirect);
+            previous.endTime = DevToolsSupport.number(event, "timestamp", -1);
+        }
+        if (entries.size() >= maxEntries) {
+            dropped++;
+            return;
+        }
+        Entry entry = new Entry(DevToolsSupport.string(event, "request.url"),
+                DevToolsSupport.string(event, "request.method"), DevToolsSupport.string(event, "type"),
+                DevToolsSupport.number(event, "wallTime", 0), DevToolsSupport.number(event, "timestamp", 0));
+        entries.add(entry);
+        active.put(id, entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onResponse(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        Entry entry = active.get(DevToolsSupport.string(event, "requestId"));
+        Object response = event.get("response");
+        if (entry != null && response instanceof Map) {
+            entry.response((Map<String, Object>) response);
+            entry.type = DevToolsSupport.string(event, "type");
+        }
+    }
+
+    private synchronized void onServedFromCache(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        Entry entry = active.get(DevToolsSupport.string(event, "requestId"));
+        if (entry != null) {
+            entry.cache = "memory";
+        }
+    }
+
+    private synchronized void onFinished(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        Entry entry = active.remove(DevToolsSupport.string(event, "requestId"));
+        if (entry != null) {
+            entry.endTime = DevToolsSupport.number(event, "timestamp", -1);
+            entry.bytes = (long) DevToolsSupport.number(event, "encodedDataLength", 0);
+        }
+    }
+
+    private synchronized void onFailed(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        Entry entry = active.remove(DevToolsSupport.string(event, "requestId"));
+        if (entry != null) {
+            entry.endTime = DevToolsSupport.number(event, "timestamp", -1);
+            entry.error = DevToolsSupport.string(event, "errorText");
+        }
+    }
+
+    // -----------------------------------------
+    // EXPORT
+    // -----------------------------------------
+    private synchronized Path export(String baseName) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        long totalBytes = 0;
+        int hits = 0;
+        int failed = 0;
+        for (Entry entry : entries) {
+            totalBytes += entry.bytes;
+            hits += entry.cache != null ? 1 : 0;
+            failed += entry.error != null || entry.status >= 400 ? 1 : 0;
+            requests.labels(entry.cache != null ? entry.cache : "network").inc();
+        }
+        String summary = "Network: " + entries.size() + " request(s), " + totalBytes / 1024 + " KB transferred, "
+                + hits + " from cache, " + failed + " failed" + (dropped > 0 ? ", " + dropped + " not recorded" : "");
+        log.info(summary);
+
+        Path har = Paths.get(EvidenceCapture.SCREENSHOT_DIR, baseName + ".har").toAbsolutePath();
+        try {
+            Files.createDirectories(har.getParent());
+            new ObjectMapper().writeValue(har.toFile(), toHar());
+            log.info("✔ HAR written to " + har);
+        } catch (IOException e) {
+            log.warn("Could not write HAR file: " + e.getMessage());
+            har = null;
+        }
+
+        ExtentLogger.extentInfo(summary + (har != null ? " - <a href='" + EvidenceCapture.reportPath(har)
+                + "' target='_blank'>HAR</a>" : ""));
+        ExtentLogger.extentTable(toTable("Slowest", Comparator.comparingDouble(Entry::durationMillis)));
+        ExtentLogger.extentTable(toTable("Largest", Comparator.comparingLong((Entry e) -> e.bytes)));
+        return har;
+    }
+
+    private String[][] toTable(String title, Comparator<Entry> order) {
+        List<Entry> ranked = new ArrayList<>(entries);
+        ranked.sort(order.reversed());
+        ranked = ranked.subList(0, Math.min(topN, ranked.size()));
+        String[][] table = new String[ranked.size() + 1][];
+        table[0] = new String[] { title, "Type", "Status", "Cache", "ms", "KB", "URL" };
+        for (int i = 0; i < ranked.size(); i++) {
+            Entry e = ranked.get(i);
+            String url = e.url == null ? "" : e.url.length() > 100 ? e.url.substring(0, 97) + "..." : e.url;
+            table[i + 1] = new String[] { String.valueOf(i + 1), String.valueOf(e.type),
+                    e.error != null ? e.error : String.valueOf(e.status), e.cache != null ? e.cache : "-",
+                    String.valueOf(Math.round(e.durationMillis())), String.valueOf(e.bytes / 1024), url };
+        }
+        return table;
+    }
+
+    private Map<String, Object> toHar() {
+        List<Map<String, Object>> harEntries = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            harEntries.add(entry.toHar());
+        }
+        Map<String, Object> creator = new LinkedHashMap<>();
+        creator.put("name", "NECF");
+        creator.put("version", "1.0");
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("version", "1.2");
+        log.put("creator", creator);
+        log.put("entries", harEntries);
+        if (dropped > 0) {
+            log.put("comment", dropped + " request(s) not recorded (network.capture.max.entries)");
+        }
+        return Collections.singletonMap("log", log);
+    }
+
+    /**
+     * One request. CDP times are monotonic seconds; ResourceTiming offsets are milliseconds
+     * from {@code requestTime}.
+     */
+    private static final class Entry {
+        final String url;
+        final String method;
+        final double wallTime;
+        final double startTime;
+        String type;
+        int status;
+        String statusText;
+        String mimeType;
+        String protocol;
+        String cache;
+        String error;
+        long bytes;
+        double endTime = -1;
+        Map<String, Double> timing;
+
+        Entry(String url, String method, String type, double wallTime, double startTime) {
+            this.url = url;
+            this.method = method;
+            this.type = type;
+            this.wallTime = wallTime;
+            this.startTime = startTime;
+        }
+
+        @SuppressWarnings("unchecked")
+        void response(Map<String, Object> response) {
+            status = (int) DevToolsSupport.number(response, "status", 0);
+            statusText = DevToolsSupport.string(response, "statusText");
+            mimeType = DevToolsSupport.string(response, "mimeType");
+            protocol = DevToolsSupport.string(response, "protocol");
+            if (Boolean.TRUE.equals(response.get("fromDiskCache"))) {
+                cache = "disk";
+            } else if (Boolean.TRUE.equals(response.get("fromServiceWorker"))) {
+                cache = "service-worker";
+            }
+            Object rawTiming = response.get("timing");
+            if (rawTiming instanceof Map) {
+                timing = new HashMap<>();
+                for (Map.Entry<String, Object> t : ((Map<String, Object>) rawTiming).entrySet()) {
+                    if (t.getValue() instanceof Number) {
+                        timing.put(t.getKey(), ((Number) t.getValue()).doubleValue());
+                    }
+                }
+            }
+        }
+
+        double durationMillis() {
+            return endTime < 0 ? 0 : (endTime - startTime) * 1000;
+        }
+
+        private double span(String from, String to) {
+            double start = timing.getOrDefault(from, -1.0);
+            double end = timing.getOrDefault(to, -1.0);
+            return start < 0 || end < 0 ? -1 : end - start;
+        }
+
+        Map<String, Object> toHar() {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            if (timing != null && timing.containsKey("requestTime")) {
+                double requestTime = timing.get("requestTime");
+                double headersEnd = timing.getOrDefault("receiveHeadersEnd", 0.0);
+                double firstStart = timing.getOrDefault("dnsStart", -1.0) >= 0 ? timing.get("dnsStart")
+                        : timing.getOrDefault("connectStart", -1.0) >= 0 ? timing.get("connectStart")
+                                : timing.getOrDefault("sendStart", 0.0);
+                timings.put("blocked", (requestTime - startTime) * 1000 + firstStart);
+                timings.put("dns", span("dnsStart", "dnsEnd"));
+                timings.put("connect", span("connectStart", "connectEnd"));
+                timings.put("ssl", span("sslStart", "sslEnd"));
+                timings.put("send", Math.max(0, span("sendStart", "sendEnd")));
+                timings.put("wait", Math.max(0, headersEnd - timing.getOrDefault("sendEnd", 0.0)));
+                timings.put("receive", endTime < 0 ? 0 : Math.max(0, (endTime - requestTime) * 1000 - headersEnd));
+            } else {
+                timings.put("send", 0);
+                timings.put("wait", 0);
+                timings.put("receive", durationMillis());
+            }
+            double total = 0;
+            for (Object value : timings.values()) {
+                total += Math.max(0, ((Number) value).doubleValue());
+            }
+
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("method", method);
+            request.put("url", url);
+            request.put("httpVersion", protocol != null ? protocol : "");
+            request.put("cookies", Collections.emptyList());
+            request.put("headers", Collections.emptyList());
+            request.put("queryString", Collections.emptyList());
+            request.put("headersSize", -1);
+            request.put("bodySize", -1);
+
+            Map<String, Object> content = new LinkedHashMap<>();
+            content.put("size", bytes);
+            content.put("mimeType", mimeType != null ? mimeType : "");
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", status);
+            response.put("statusText", statusText != null ? statusText : error != null ? error : "");
+            response.put("httpVersion", protocol != null ? protocol : "");
+            response.put("cookies", Collections.emptyList());
+            response.put("headers", Collections.emptyList());
+            response.put("content", content);
+            response.put("redirectURL", "");
+            response.put("headersSize", -1);
+            response.put("bodySize", cache != null ? 0 : bytes);
+
+            Map<String, Object> har = new LinkedHashMap<>();
+            har.put("startedDateTime", Instant.ofEpochMilli((long) (wallTime * 1000)).toString());
+            har.put("time", total);
+            har.put("request", request);
+            har.put("response", response);
+            har.put("cache", Collections.emptyMap());
+            har.put("timings", timings);
+            har.put("_resourceType", type);
+            if (cache != null) {
+                har.put("_fromCache", cache);
+            }
+            if (error != null) {
+                har.put("_error", error);
+            }
+            return har;
+        }
+    }
+}
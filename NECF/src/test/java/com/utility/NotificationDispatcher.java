@@ -0,0 +1,258 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends notification mails from a single background worker so callers never block on SMTP.
+ * <p>
+ * Notifications wait in a bounded queue ({@code mail.queue.capacity}); when it is full new
+ * ones are dropped with a warning. The worker drains whatever is queued as one burst over a
+ * single connected {@link Transport}, retrying each message with exponential backoff
+ * ({@code mail.retry.max}, {@code mail.retry.backoff.ms}). A shutdown hook gives queued mails
+ * up to {@code mail.shutdown.timeout.seconds} to go out before the JVM exits.
+ * <p>
+ * The server is configured with {@code mail.smtp.host}, {@code mail.smtp.port},
+ * {@code mail.smtp.auth} and {@code mail.smtp.starttls}, so a local SMTP stub can be used.
+ */
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerHelper.getLogger(NotificationDispatcher.class);
+
+    private static volatile NotificationDispatcher instance;
+
+    /**
+     * Builds the message on the worker thread, so attachment work stays off the caller.
+     */
+    public interface MessageBuilder {
+        MimeMessage build(Session session) throws Exception;
+    }
+
+    private static final class Notification {
+        final String description;
+        final MessageBuilder builder;
+
+        Notification(String description, MessageBuilder builder) {
+            this.description = description;
+            this.builder = builder;
+        }
+    }
+
+    private final String host = ConfigReader.getProperty("mail.smtp.host", "smtp.gmail.com");
+    private final int port = ConfigReader.getInt("mail.smtp.port", 587);
+    private final boolean auth = ConfigReader.getBoolean("mail.smtp.auth", true);
+    private final int maxRetries = ConfigReader.getInt("mail.retry.max", 3);
+    private final long backoffMillis = ConfigReader.getLong("mail.retry.backoff.ms", 2000);
+    private final long shutdownTimeoutSeconds = ConfigReader.getLong("mail.shutdown.timeout.seconds", 30);
+
+    private final BlockingQueue<Notification> queue;
+    private final Session session;
+    private final String user;
+    private final String password;
+    private final Thread worker;
+    private final Object idle = new Object();
+
+    private volatile boolean closing;
+    private int pending;
+
+    private NotificationDispatcher(String user, String password) {
+        this.user = user;
+        this.password = password;
+        this.queue = new ArrayBlockingQueue<>(
+                Math.max(1, ConfigReader.getInt("mail.queue.capacity", 10)));
+
+        Properties props = new Properties();
+        props.put("mail.smtp.host", host);
+        props.put("mail.smtp.port", String.valueOf(port));
+        props.put("mail.smtp.auth", String.valueOf(auth));
+        props.put("mail.smtp.starttls.enable", ConfigReader.getProperty("mail.smtp.starttls", "true"));
+        props.put("mail.smtp.connectiontimeout", ConfigReader.getProperty("mail.smtp.timeout.ms", "10000"));
+        props.put("mail.smtp.timeout", ConfigReader.getProperty("mail.smtp.timeout.ms", "10000"));
+        this.session = Session.getInstance(props);
+
+        this.worker = new Thread(this::run, "notification-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "notification-dispatcher-shutdown"));
+    }
+
+    /**
+     * Dispatcher for the given sender account, created on first use.
+     */
+    public static NotificationDispatcher getInstance(String user, String password) {
+        if (instance == null) {
+            synchronized (NotificationDispatcher.class) {
+                if (instance == null) {
+                    instance = new NotificationDispatcher(user, password);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isAuthRequired() {
+        return auth;
+    }
+
+    /**
+     * Queues a notification and returns immediately.
+     *
+     * @return false when the queue is full or the dispatcher is shutting down
+     */
+    public boolean submit(String description, MessageBuilder builder) {
+        if (closing) {
+            log.warn("⚠️ Notification dispatcher is shutting down, dropped: " + description);
+            return false;
+        }
+        synchronized (idle) {
+            if (!queue.offer(new Notification(description, builder))) {
+                log.warn("⚠️ Notification queue full (" + queue.size() + "), dropped: " + description);
+                return false;
+            }
+            pending++;
+        }
+        log.info("Notification queued: " + description);
+        return true;
+    }
+
+    /**
+     * Waits until every queued notification has been handled or the timeout expires.
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idle) {
+            while (pending > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                idle.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    private void shutdown() {
+        closing = true;
+        try {
+            if (!awaitIdle(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("⚠️ " + pending + " notification(s) still pending after " + shutdownTimeoutSeconds
+                        + " s, giving up");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+    }
+
+    // -----------------------------------------
+    // WORKER
+    // -----------------------------------------
+    private void run() {
+        while (true) {
+            List<Notification> burst = new ArrayList<>();
+            try {
+                burst.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(burst);
+            try {
+                deliver(burst);
+            } finally {
+                synchronized (idle) {
+                    pending -= burst.size();
+                    idle.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a burst over one connection, reconnecting only after a failure.
+     */
+    private void deliver(List<Notification> burst) {
+        Transport transport = null;
+        try {
+            for (Notification notification : burst) {
+                MimeMessage message;
+                try {
+                    message = notification.builder.build(session);
+                } catch (Exception e) {
+                    log.error("❌ Could not build notification '" + notification.description + "': " + e.getMessage(), e);
+                    continue;
+                }
+
+                for (int attempt = 1;; attempt++) {
+                    try {
+                        if (transport == null || !transport.isConnected()) {
+                            transport = connect();
+                        }
+                        long start = System.currentTimeMillis();
+                        transport.sendMessage(message, message.getAllRecipients());
+                        log.info("📧 ✔ Sent '" + notification.description + "' in "
+                                + (System.currentTimeMillis() - start) + " ms (attempt " + attempt + ")");
+                        break;
+                    } catch (MessagingException e) {
+                        close(transport);
+                        transport = null;
+                        if (attempt > maxRetries) {
+                            log.error("❌ EMAIL SEND FAILED after " + attempt + " attempt(s): " + e.getMessage(), e);
+                            break;
+                        }
+                        long delay = backoffMillis << (attempt - 1);
+                        log.warn("⚠️ Sending '" + notification.description + "' failed (" + e.getMessage()
+                                + "), retrying in " + delay + " ms");
+                        try {
+                            Thread.sleep(delay);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            log.warn("⚠️ Retry interrupted, '" + notification.description + "' not sent");
+                            return;
+                        }
+                    } catch (Exception e) {
+                        // not a delivery failure that a retry would fix; keep the worker alive for the rest
+                        close(transport);
+                        transport = null;
+                        log.error("❌ EMAIL SEND FAILED for '" + notification.description + "': " + e.getMessage(), e);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            close(transport);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        if (auth) {
+            transport.connect(host, port, user, password);
+        } else {
+            transport.connect();
+        }
+        log.debug("Connected to SMTP server " + host + ":" + port);
+        return transport;
+    }
+
+    private static void close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (Exception e) {
+                log.debug("Error closing SMTP transport: " + e.getMessage());
+            }
+        }
+    }
+}
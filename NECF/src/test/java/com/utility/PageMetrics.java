@@ -0,0 +1,250 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timings for one page load, read from the Navigation Timing, Resource Timing and
+ * Paint/Web Vitals entries of the browser performance timeline. All times are in
+ * milliseconds relative to navigation start; vitals are {@code null} when the
+ * browser did not report them.
+ */
+public class PageMetrics {
+
+    private final String url;
+    private final long capturedAt;
+
+    private final double ttfb;
+    private final double dns;
+    private final double connect;
+    private final double tls;
+    private final double request;
+    private final double response;
+    private final double domInteractive;
+    private final double domContentLoaded;
+    private final double loadTime;
+    private final long transferSize;
+    private final long decodedBodySize;
+
+    private final int resourceCount;
+    private final long resourceTransferSize;
+    private final List<ResourceTiming> slowestResources;
+
+    private final Double fcp;
+    private final Double lcp;
+    private final Double cls;
+    private final Double inp;
+    private final Double fid;
+
+    @SuppressWarnings("unchecked")
+    PageMetrics(String url, Map<String, Object> raw) {
+        this.url = url;
+        this.capturedAt = System.currentTimeMillis();
+
+        Map<String, Object> nav = raw.get("navigation") instanceof Map ? (Map<String, Object>) raw.get("navigation")
+                : Collections.emptyMap();
+        this.ttfb = number(nav.get("ttfb"));
+        this.dns = number(nav.get("dns"));
+        this.connect = number(nav.get("connect"));
+        this.tls = number(nav.get("tls"));
+        this.request = number(nav.get("request"));
+        this.response = number(nav.get("response"));
+        this.domInteractive = number(nav.get("domInteractive"));
+        this.domContentLoaded = number(nav.get("domContentLoaded"));
+        this.loadTime = number(nav.get("load"));
+        this.transferSize = (long) number(nav.get("transferSize"));
+        this.decodedBodySize = (long) number(nav.get("decodedBodySize"));
+
+        Map<String, Object> res = raw.get("resources") instanceof Map ? (Map<String, Object>) raw.get("resources")
+                : Collections.emptyMap();
+        this.resourceCount = (int) number(res.get("count"));
+        this.resourceTransferSize = (long) number(res.get("transferSize"));
+        List<ResourceTiming> slowest = new ArrayList<>();
+        if (res.get("slowest") instanceof List) {
+            for (Object entry : (List<Object>) res.get("slowest")) {
+                Map<String, Object> r = (Map<String, Object>) entry;
+                slowest.add(new ResourceTiming(String.valueOf(r.get("name")), String.valueOf(r.get("type")),
+                        number(r.get("duration")), (long) number(r.get("transferSize"))));
+            }
+        }
+        this.slowestResources = Collections.unmodifiableList(slowest);
+
+        Map<String, Object> vitals = raw.get("vitals") instanceof Map ? (Map<String, Object>) raw.get("vitals")
+                : Collections.emptyMap();
+        this.fcp = optional(vitals.get("fcp"));
+        this.lcp = optional(vitals.get("lcp"));
+        this.cls = optional(vitals.get("cls"));
+        this.inp = optional(vitals.get("inp"));
+        this.fid = optional(vitals.get("fid"));
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static Double optional(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public double getTtfbMs() {
+        return ttfb;
+    }
+
+    public double getDnsMs() {
+        return dns;
+    }
+
+    public double getConnectMs() {
+        return connect;
+    }
+
+    public double getTlsMs() {
+        return tls;
+    }
+
+    public double getRequestMs() {
+        return request;
+    }
+
+    public double getResponseMs() {
+        return response;
+    }
+
+    public double getDomInteractiveMs() {
+        return domInteractive;
+    }
+
+    public double getDomContentLoadedMs() {
+        return domContentLoaded;
+    }
+
+    /** loadEventEnd relative to navigation start. */
+    public long getLoadTimeMs() {
+        return Math.round(loadTime);
+    }
+
+    /** Bytes transferred for the document itself. */
+    public long getTransferSize() {
+        return transferSize;
+    }
+
+    public long getDecodedBodySize() {
+        return decodedBodySize;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    /** Bytes transferred for sub-resources (0 for cross-origin entries without Timing-Allow-Origin). */
+    public long getResourceTransferSize() {
+        return resourceTransferSize;
+    }
+
+    public List<ResourceTiming> getSlowestResources() {
+        return slowestResources;
+    }
+
+    public Double getFcpMs() {
+        return fcp;
+    }
+
+    public Double getLcpMs() {
+        return lcp;
+    }
+
+    public Double getCls() {
+        return cls;
+    }
+
+    public Double getInpMs() {
+        return inp;
+    }
+
+    public Double getFidMs() {
+        return fid;
+    }
+
+    /**
+     * Rows for an Extent table: metric name and value.
+     */
+    public String[][] toTable() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[] { "Metric", "Value" });
+        rows.add(new String[] { "TTFB", ms(ttfb) });
+        rows.add(new String[] { "DNS / Connect / TLS", ms(dns) + " / " + ms(connect) + " / " + ms(tls) });
+        rows.add(new String[] { "Request / Response", ms(request) + " / " + ms(response) });
+        rows.add(new String[] { "DOM Interactive", ms(domInteractive) });
+        rows.add(new String[] { "DOM Content Loaded", ms(domContentLoaded) });
+        rows.add(new String[] { "Load", ms(loadTime) });
+        rows.add(new String[] { "FCP", ms(fcp) });
+        rows.add(new String[] { "LCP", ms(lcp) });
+        rows.add(new String[] { "CLS", cls == null ? "n/a" : String.format("%.3f", cls) });
+        rows.add(new String[] { "INP / FID", ms(inp) + " / " + ms(fid) });
+        rows.add(new String[] { "Resources", resourceCount + " (" + resourceTransferSize + " bytes)" });
+        for (ResourceTiming resource : slowestResources) {
+            rows.add(new String[] { "Slow " + resource.getType(), resource.toString() });
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    private static String ms(Double value) {
+        return value == null ? "n/a" : Math.round(value) + " ms";
+    }
+
+    @Override
+    public String toString() {
+        return "PageMetrics [url=" + url + ", ttfb=" + ms(ttfb) + ", domContentLoaded=" + ms(domContentLoaded)
+                + ", load=" + ms(loadTime) + ", fcp=" + ms(fcp) + ", lcp=" + ms(lcp) + ", cls="
+                + (cls == null ? "n/a" : String.format("%.3f", cls)) + ", inp=" + ms(inp) + ", fid=" + ms(fid)
+                + ", resources=" + resourceCount + ", resourceBytes=" + resourceTransferSize + "]";
+    }
+
+    /**
+     * One entry of the slowest-resources list.
+     */
+    public static final class ResourceTiming {
+        private final String name;
+        private final String type;
+        private final double duration;
+        private final long transferSize;
+
+        ResourceTiming(String name, String type, double duration, long transferSize) {
+            this.name = name;
+            this.type = type;
+            this.duration = duration;
+            this.transferSize = transferSize;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public double getDurationMs() {
+            return duration;
+        }
+
+        public long getTransferSize() {
+            return transferSize;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + Math.round(duration) + " ms, " + transferSize + " bytes)";
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.utility;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Collects {@link PageMetrics} for the page currently loaded in a driver.
+ * <p>
+ * Call {@link #prepare(WebDriver)} before navigating so the Web Vitals observers
+ * are registered on every new document (Chromium browsers, via CDP). Other
+ * browsers fall back to buffered observers registered at collection time, which
+ * still see paint, LCP and layout-shift entries recorded during the load.
+ */
+public class PageMetricsCollector {
+
+    private static final Logger log = LoggerHelper.getLogger(PageMetricsCollector.class);
+
+    private static final String OBSERVER_SCRIPT = "(function () {"
+            + "  if (window.__necfVitals) { return; }"
+            + "  var v = window.__necfVitals = { fcp: null, lcp: null, cls: 0, inp: null, fid: null };"
+            + "  function observe(options, callback) {"
+            + "    try {"
+            + "      new PerformanceObserver(function (list) { list.getEntries().forEach(callback); }).observe(options);"
+            + "    } catch (e) {}"
+            + "  }"
+            + "  observe({ type: 'paint', buffered: true }, function (e) {"
+            + "    if (e.name === 'first-contentful-paint') { v.fcp = e.startTime; }"
+            + "  });"
+            + "  observe({ type: 'largest-contentful-paint', buffered: true }, function (e) {"
+            + "    v.lcp = e.renderTime || e.loadTime || e.startTime;"
+            + "  });"
+            + "  observe({ type: 'layout-shift', buffered: true }, function (e) {"
+            + "    if (!e.hadRecentInput) { v.cls += e.value; }"
+            + "  });"
+            + "  observe({ type: 'first-input', buffered: true }, function (e) {"
+            + "    v.fid = e.processingStart - e.startTime;"
+            + "  });"
+            + "  observe({ type: 'event', buffered: true, durationThreshold: 16 }, function (e) {"
+            + "    if (e.interactionId && (v.inp === null || e.duration > v.inp)) { v.inp = e.duration; }"
+            + "  });"
+            + "})();";
+
+    private static final String COLLECT_SCRIPT = "var limit = arguments[0];"
+            + "var done = arguments[arguments.length - 1];"
+            + OBSERVER_SCRIPT
+            // give buffered observer callbacks a chance to run before reading the values
+            + "setTimeout(function () {"
+            + "  var out = { vitals: window.__necfVitals, navigation: null, resources: null };"
+            + "  var nav = performance.getEntriesByType('navigation')[0];"
+            + "  if (nav) {"
+            + "    out.navigation = {"
+            + "      ttfb: nav.responseStart,"
+            + "      dns: nav.domainLookupEnd - nav.domainLookupStart,"
+            + "      connect: nav.connectEnd - nav.connectStart,"
+            + "      tls: nav.secureConnectionStart > 0 ? nav.connectEnd - nav.secureConnectionStart : 0,"
+            + "      request: nav.responseStart - nav.requestStart,"
+            + "      response: nav.responseEnd - nav.responseStart,"
+            + "      domInteractive: nav.domInteractive,"
+            + "      domContentLoaded: nav.domContentLoadedEventEnd,"
+            + "      load: nav.loadEventEnd,"
+            + "      transferSize: nav.transferSize,"
+            + "      decodedBodySize: nav.decodedBodySize"
+            + "    };"
+            + "  }"
+            + "  var entries = performance.getEntriesByType('resource');"
+            + "  var bytes = 0;"
+            + "  entries.forEach(function (r) { bytes += r.transferSize || 0; });"
+            + "  var slowest = entries.slice().sort(function (a, b) { return b.duration - a.duration; })"
+            + "    .slice(0, limit)"
+            + "    .map(function (r) {"
+            + "      return { name: r.name, type: r.initiatorType, duration: r.duration, transferSize: r.transferSize || 0 };"
+            + "    });"
+            + "  out.resources = { count: entries.length, transferSize: bytes, slowest: slowest };"
+            + "  done(out);"
+            + "}, 100);";
+
+    private static final Set<WebDriver> prepared = Collections.synchronizedSet(
+            Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final ThreadLocal<PageMetrics> lastMetrics = new ThreadLocal<>();
+
+    /**
+     * Registers the Web Vitals observers on every document the driver loads from now on.
+     * Does nothing for browsers without CDP; never fails the caller.
+     */
+    public static void prepare(WebDriver driver) {
+        if (!(driver instanceof HasCdp) || prepared.contains(driver)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("source", OBSERVER_SCRIPT));
+            prepared.add(driver);
+        } catch (Exception e) {
+            log.debug("Could not pre-install Web Vitals observers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the metrics of the current page in a single async script call.
+     */
+    @SuppressWarnings("unchecked")
+    public static PageMetrics collect(WebDriver driver) {
+        int slowestCount = ConfigReader.getInt("metrics.slowest.resources", 5);
+        Object raw = ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT, slowestCount);
+        PageMetrics metrics = new PageMetrics(driver.getCurrentUrl(),
+                raw instanceof Map ? (Map<String, Object>) raw : Collections.emptyMap());
+        lastMetrics.set(metrics);
+        ScenarioMetrics.record(metrics);
+        return metrics;
+    }
+
+    /**
+     * Metrics of the last page collected on the calling thread, or {@code null}.
+     */
+    public static PageMetrics getLastMetrics() {
+        return lastMetrics.get();
+    }
+}
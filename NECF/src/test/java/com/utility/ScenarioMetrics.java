@@ -0,0 +1,67 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Performance data gathered by the scenario running on the current thread: every page
+ * measured by {@link PageMetricsCollector}, plus the {@link NetworkRecorder} totals when
+ * network capture is on. Budget steps read from here; the context is cleared after each
+ * scenario.
+ */
+public class ScenarioMetrics {
+
+    private static final ThreadLocal<List<PageMetrics>> pages = ThreadLocal.withInitial(ArrayList::new);
+
+    private ScenarioMetrics() {
+    }
+
+    static void record(PageMetrics metrics) {
+        pages.get().add(metrics);
+    }
+
+    public static List<PageMetrics> getPages() {
+        return Collections.unmodifiableList(pages.get());
+    }
+
+    /**
+     * The page measured last.
+     *
+     * @throws IllegalStateException if no page was measured in this scenario
+     */
+    public static PageMetrics lastPage() {
+        List<PageMetrics> measured = pages.get();
+        if (measured.isEmpty()) {
+            throw new IllegalStateException("No page metrics collected in this scenario; load a page first");
+        }
+        return measured.get(measured.size() - 1);
+    }
+
+    /**
+     * Requests made so far: every request seen by the network recorder, otherwise the last
+     * page's document plus its Resource Timing entries.
+     */
+    public static int requestCount() {
+        int recorded = NetworkRecorder.requestCount();
+        return recorded >= 0 ? recorded : lastPage().getResourceCount() + 1;
+    }
+
+    /**
+     * Bytes transferred so far, from the network recorder when it runs. Otherwise it is taken
+     * from the last page's timing entries, which report 0 for cross-origin resources without
+     * Timing-Allow-Origin.
+     */
+    public static long transferredBytes() {
+        long recorded = NetworkRecorder.transferredBytes();
+        if (recorded >= 0) {
+            return recorded;
+        }
+        PageMetrics page = lastPage();
+        return page.getTransferSize() + page.getResourceTransferSize();
+    }
+
+    public static void clear() {
+        pages.remove();
+    }
+}
@@ -0,0 +1,218 @@
+package com.utility;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.Logger;
+
+/**
+ * HTTP availability checks on one shared, HTTP/2-capable {@link HttpClient}.
+ * <p>
+ * Connections are pooled by the client and reused across checks. Lists of URLs
+ * are checked concurrently, with at most {@code availability.max.concurrency}
+ * requests in flight.
+ */
+public class SiteAvailabilityChecker {
+
+    private static final Logger log = LoggerHelper.getLogger(SiteAvailabilityChecker.class);
+
+    private static final int CONNECT_TIMEOUT_MS = ConfigReader.getInt("availability.connect.timeout.ms", 5000);
+    private static final int READ_TIMEOUT_MS = ConfigReader.getInt("availability.read.timeout.ms", 10000);
+    private static final int MAX_CONCURRENCY = Math.max(1,
+            ConfigReader.getInt("availability.max.concurrency", 8));
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Gauge> siteUp = MetricsRegistry.gauge(
+            "necf_site_up", "1 if the last availability check of the URL succeeded, else 0", "url");
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> httpLatency = MetricsRegistry.histogram(
+            "necf_http_latency_seconds", "Availability check latency including the response body", "url");
+
+    private static final Semaphore permits = new Semaphore(MAX_CONCURRENCY);
+    // checks waiting for a permit, in submission order
+    private static final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENCY, r -> {
+        Thread t = new Thread(r, "availability-check-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+            .followRedirects(HttpClient.Redirect.valueOf(
+                    ConfigReader.getProperty("availability.follow.redirects", "normal").toUpperCase()))
+            .executor(executor)
+            .build();
+
+    /**
+     * URLs listed in availability.urls (comma separated), falling back to url.
+     */
+    public static List<String> configuredUrls() {
+        String urls = ConfigReader.getProperty("availability.urls", ConfigReader.getProperty("url"));
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(u -> !u.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public static CheckResult check(String url) {
+        return checkAsync(url).join();
+    }
+
+    /**
+     * Checks all URLs concurrently; results are returned in the order of the input list.
+     */
+    public static List<CheckResult> checkAll(List<String> urls) {
+        List<CompletableFuture<CheckResult>> futures = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            futures.add(checkAsync(url));
+        }
+        return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    }
+
+    /**
+     * Queues a check and returns at once; the request is sent when a concurrency permit is
+     * free. The future never completes exceptionally; failures are reported through
+     * {@link CheckResult#getError()}.
+     */
+    public static CompletableFuture<CheckResult> checkAsync(String url) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofMillis(READ_TIMEOUT_MS))
+                    .header("User-Agent", "NECF-Availability-Check")
+                    .GET()
+                    .build();
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(CheckResult.failed(url, 0, e));
+        }
+
+        CompletableFuture<CheckResult> result = new CompletableFuture<>();
+        waiting.add(() -> send(url, request, result));
+        drain();
+        return result;
+    }
+
+    /**
+     * Sends queued checks while permits are free. Runs on the caller of {@link #checkAsync}
+     * and on the client threads that finish a check, so nobody blocks waiting for a permit.
+     */
+    private static void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                continue;
+            }
+            next.run();
+        }
+    }
+
+    /** Called with a permit held; the permit is released when the check completes or fails to start. */
+    private static void send(String url, HttpRequest request, CompletableFuture<CheckResult> result) {
+        AtomicLong bytes = new AtomicLong();
+        long start = System.nanoTime();
+        try {
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArrayConsumer(chunk ->
+                            chunk.ifPresent(b -> bytes.addAndGet(b.length))))
+                    .orTimeout(CONNECT_TIMEOUT_MS + (long) READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                    .whenComplete((response, error) -> {
+                        permits.release();
+                        try {
+                            long elapsed = System.nanoTime() - start;
+                            long latency = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                            CheckResult checked = error != null ? CheckResult.failed(url, latency, error)
+                                    : new CheckResult(url, response.statusCode(), latency, bytes.get(), null);
+                            siteUp.labels(url).set(checked.isUp() ? 1 : 0);
+                            httpLatency.labels(url).observeNanos(elapsed);
+                            result.complete(checked);
+                        } catch (RuntimeException e) {
+                            result.complete(CheckResult.failed(url, 0, e));
+                        } finally {
+                            drain();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // sendAsync rejected the request before it started; drain() goes on with the next one
+            permits.release();
+            result.complete(CheckResult.failed(url, 0, e));
+        }
+    }
+
+    /**
+     * Outcome of a single availability check.
+     */
+    public static final class CheckResult {
+        private final String url;
+        private final int status;
+        private final long latencyMillis;
+        private final long bytes;
+        private final String error;
+
+        CheckResult(String url, int status, long latencyMillis, long bytes, String error) {
+            this.url = url;
+            this.status = status;
+            this.latencyMillis = latencyMillis;
+            this.bytes = bytes;
+            this.error = error;
+        }
+
+        static CheckResult failed(String url, long latencyMillis, Throwable error) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            String message = cause.getClass().getSimpleName()
+                    + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+            log.debug("Availability check failed for " + url + " - " + message);
+            return new CheckResult(url, -1, latencyMillis, 0, message);
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /** HTTP status code, or -1 when no response was received. */
+        public int getStatus() {
+            return status;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isUp() {
+            return error == null && status >= 200 && status < 400;
+        }
+
+        @Override
+        public String toString() {
+            return url + " -> " + (error != null ? "ERROR " + error : "HTTP " + status) + " (" + latencyMillis
+                    + " ms, " + bytes + " bytes)";
+        }
+    }
+}
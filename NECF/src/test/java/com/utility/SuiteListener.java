@@ -5,20 +5,30 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
 
+import com.aventstack.extentreports.service.ExtentService;
 import com.stepDefinitions.Hooks;
 import com.utility.EmailReportSender;
+import com.webdrivermanager.DriverManager;
 
-public class SuiteListener implements ISuiteListener {
+public class SuiteListener implements ISuiteListener, IAlterSuiteListener {
 
     private static final Logger log = LogManager.getLogger(SuiteListener.class);
     private static final String EXTENT_REPORTS_DIR = "target/ExtentReports";
     private static final String REPORT_FILE_NAME = "SparkReport.html";
+    private static final long MIN_REPORT_SIZE = 1000; // Minimum 1KB to ensure it's not empty
     
     /**
      * Get the absolute path to the ExtentReports directory
@@ -41,37 +51,84 @@ public class SuiteListener implements ISuiteListener {
         return reportFile;
     }
 
+    /**
+     * Apply the configured scenario concurrency (parallel.threads) before the suite runs.
+     * A -Dparallel.threads system property (or NECF_PARALLEL_THREADS variable) takes precedence
+     * over Config.properties.
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int threads = Math.max(1, ConfigReader.getInt("parallel.threads", 1));
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+        log.info("Scenario concurrency set to " + threads + " thread(s)");
+    }
+
     @Override
     public void onStart(ISuite suite) {
         log.info("Test Suite started: " + suite.getName());
         log.info("Working directory: " + System.getProperty("user.dir"));
         cleanupExtentReportsDirectory();
+        if (MetricsServer.isEnabled()) {
+            MetricsServer.start();
+        }
+        // Browsers start in the background while Cucumber loads the features
+        DriverManager.prewarm();
     }
 
     /**
-     * Flush ExtentReports instance managed by ExtentCucumberAdapter
+     * Flush the ExtentReports instance shared with ExtentCucumberAdapter.
+     * The Spark reporter writes the HTML file synchronously during flush(),
+     * so the report is complete on disk once this returns true.
      */
-    private void flushExtentReports() {
+    private boolean flushExtentReports() {
         try {
-            // Use reflection to access the ExtentReports instance from ExtentCucumberAdapter
-            Class<?> adapterClass = Class.forName("com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter");
-            java.lang.reflect.Method getExtentMethod = adapterClass.getMethod("getExtent");
-            Object extentReports = getExtentMethod.invoke(null);
-            
-            if (extentReports != null) {
-                java.lang.reflect.Method flushMethod = extentReports.getClass().getMethod("flush");
-                flushMethod.invoke(extentReports);
-                log.info("✔ ExtentReports flushed successfully via ExtentCucumberAdapter");
-            } else {
-                log.warn("ExtentReports instance is null in ExtentCucumberAdapter");
-            }
-        } catch (ClassNotFoundException e) {
-            log.warn("ExtentCucumberAdapter class not found: " + e.getMessage());
-        } catch (NoSuchMethodException e) {
-            log.warn("Method not found in ExtentCucumberAdapter: " + e.getMessage());
+            ExtentService.getInstance().flush();
+            log.info("✔ ExtentReports flushed successfully via ExtentService");
+            return true;
         } catch (Exception e) {
-            log.warn("Could not flush ExtentReports via reflection: " + e.getMessage());
-            log.debug("ExtentCucumberAdapter should auto-flush, waiting for it to complete...");
+            log.warn("Could not flush ExtentReports: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isReportReady(Path report) {
+        try {
+            return Files.exists(report) && Files.size(report) > MIN_REPORT_SIZE;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait until the report exists and is not empty. Returns at once when it already is;
+     * otherwise blocks on a WatchService for the report directory (no sleep-and-poll)
+     * until the file shows up or the timeout expires.
+     */
+    static boolean awaitReport(Path report, long timeoutMillis) throws IOException, InterruptedException {
+        if (isReportReady(report)) {
+            return true;
+        }
+        Path dir = report.getParent();
+        Files.createDirectories(dir);
+        try (WatchService watcher = dir.getFileSystem().newWatchService()) {
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            // re-checked after registering so a write that raced the registration is not missed
+            while (!isReportReady(report)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                WatchKey key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    return isReportReady(report);
+                }
+                key.pollEvents();
+                key.reset();
+            }
+            return true;
         }
     }
 
@@ -120,61 +177,29 @@ public class SuiteListener implements ISuiteListener {
             log.info("Failed scenarios count: " + failedScenarios.size());
             log.info("Failed screenshots count: " + failedScreenshots.size());
             
+            // Screenshots referenced by the report are written in the background
+            EvidenceCapture.awaitPending(
+                    ConfigReader.getLong("report.wait.timeout.ms", 10000), TimeUnit.MILLISECONDS);
+
             // Flush ExtentReports managed by ExtentCucumberAdapter
             log.info("Flushing ExtentReports...");
             flushExtentReports();
-            
-            // Wait a bit to ensure the report is written to disk
-            Thread.sleep(2000);
 
             // Get the absolute path to the HTML report
             File htmlReport = getHtmlReportFile();
-            log.info("Checking for HTML report at: " + htmlReport.getAbsolutePath());
-            
-            // Ensure parent directory exists
             File parentDir = htmlReport.getParentFile();
-            if (!parentDir.exists()) {
-                log.warn("Parent directory does not exist, creating: " + parentDir.getAbsolutePath());
-                parentDir.mkdirs();
-            }
-            
-            // Wait and verify HTML report is fully generated before sending email
-            int maxWaitAttempts = 20; // Increased from 10 to 20
-            int waitInterval = 1000; // Increased from 500ms to 1000ms (1 second)
-            boolean reportReady = false;
-            long reportSize = 0;
-            
-            log.info("Waiting for HTML report to be generated (max " + (maxWaitAttempts * waitInterval / 1000) + " seconds)...");
-            
-            for (int i = 0; i < maxWaitAttempts; i++) {
-                if (htmlReport.exists()) {
-                    long sizeBefore = htmlReport.length();
-                    log.debug("Attempt " + (i + 1) + ": Report exists, size: " + sizeBefore + " bytes");
-                    Thread.sleep(waitInterval);
-                    long sizeAfter = htmlReport.length();
-                    // If file size is stable and greater than minimum size (not empty), report is ready
-                    if (sizeBefore == sizeAfter && sizeBefore > 1000) { // Minimum 1KB to ensure it's not empty
-                        reportReady = true;
-                        reportSize = sizeAfter;
-                        log.info("✔ HTML report is ready: " + htmlReport.getAbsolutePath() + " (Size: " + reportSize + " bytes)");
-                        break;
-                    } else if (sizeBefore != sizeAfter) {
-                        log.debug("Report still being written (size changed from " + sizeBefore + " to " + sizeAfter + " bytes)");
-                    } else if (sizeBefore <= 1000) {
-                        log.warn("Report exists but is too small: " + sizeBefore + " bytes (minimum 1KB required)");
-                    }
-                } else {
-                    log.debug("Attempt " + (i + 1) + ": Report does not exist yet, waiting...");
-                    Thread.sleep(waitInterval);
-                }
-            }
-            
-            if (!reportReady) {
+            long timeout = ConfigReader.getLong("report.wait.timeout.ms", 10000);
+            boolean reportReady = awaitReport(htmlReport.toPath(), timeout);
+            long reportSize = htmlReport.exists() ? htmlReport.length() : 0;
+
+            if (reportReady) {
+                log.info("✔ HTML report is ready: " + htmlReport.getAbsolutePath() + " (Size: " + reportSize + " bytes)");
+            } else {
                 log.warn("⚠️ HTML report may not be fully generated or is empty.");
                 log.warn("Report exists: " + htmlReport.exists());
                 log.warn("Report path: " + htmlReport.getAbsolutePath());
                 if (htmlReport.exists()) {
-                    log.warn("Report size: " + htmlReport.length() + " bytes");
+                    log.warn("Report size: " + reportSize + " bytes");
                 } else {
                     // Check if directory exists and list its contents
                     if (parentDir.exists()) {
@@ -196,7 +221,7 @@ public class SuiteListener implements ISuiteListener {
             // Only send email if there are failures AND report is ready and valid
             if (!failedScenarios.isEmpty()) {
                 if (reportReady && reportSize > 1000) {
-                    log.info("Sending email report for " + failedScenarios.size() + " failed scenario(s)...");
+                    log.info("Queueing email report for " + failedScenarios.size() + " failed scenario(s)...");
                     EmailReportSender.sendFailureReportWithScreenshots(failedScenarios, failedScreenshots);
                 } else {
                     log.warn("⚠️ Email not sent: Report is not ready or is empty. Report ready: " + 
@@ -210,6 +235,10 @@ public class SuiteListener implements ISuiteListener {
         } catch(Exception e) {
             log.error("Error in SuiteListener.onFinish: " + e.getMessage(), e);
             e.printStackTrace();
+        } finally {
+            // Close any pooled browsers kept warm between scenarios
+            DriverManager.shutdown();
+            MetricsServer.stop();
         }
     }
 }
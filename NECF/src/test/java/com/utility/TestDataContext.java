@@ -0,0 +1,29 @@
+package com.utility;
+
+/**
+ * Excel row selected for the scenario running on the current thread.
+ */
+public class TestDataContext {
+
+	private static final ThreadLocal<ExcelRow> current = new ThreadLocal<>();
+
+	public static void set(ExcelRow row) {
+		current.set(row);
+	}
+
+	public static ExcelRow get() {
+		ExcelRow row = current.get();
+		if (row == null) {
+			throw new IllegalStateException("No test data loaded for this scenario; add a 'Given test data ...' step");
+		}
+		return row;
+	}
+
+	public static String get(String column) {
+		return get().getString(column);
+	}
+
+	public static void clear() {
+		current.remove();
+	}
+}
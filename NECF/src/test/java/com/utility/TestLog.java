@@ -0,0 +1,350 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+
+import com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+
+/**
+ * One call that goes to both log4j and the Extent step log.
+ *
+ * <pre>
+ * private static final TestLog log = TestLog.of(HomePage.class);
+ * log.info("Server responded with status code: {} in {} ms", status, latency);
+ * log.pass("Website is UP");
+ * </pre>
+ *
+ * Messages use log4j {@code {}} placeholders, so nothing is formatted when a level is off.
+ * The log4j side is garbage-free with the async loggers in {@code log4j2.xml}. The Extent
+ * side only records the pattern and arguments in a per-thread buffer that is reused from
+ * step to step. {@link TestLogFlusher} renders the buffer and hands it to the Extent adapter
+ * as one entry when the step finishes, or every {@code testlog.extent.batch.size} events
+ * during a long step. Arguments are therefore formatted at that point, not at the call.
+ * Events from {@code @Before} hooks, which have no step yet, go to the scenario's first step.
+ * Without the flusher plugin every event goes to Extent at once, as {@link ExtentLogger} does.
+ */
+public final class TestLog {
+
+    private static final int BATCH_SIZE = Math.max(1, ConfigReader.getInt("testlog.extent.batch.size", 50));
+    private static final int MAX_BUFFERED = Math.max(BATCH_SIZE, ConfigReader.getInt("testlog.extent.max.buffered", 1000));
+
+    private static final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+
+    // set by TestLogFlusher when it is registered as a Cucumber plugin
+    private static volatile boolean buffered;
+    // replaced by the benchmark, which runs without Cucumber
+    static volatile Consumer<String> sink = ExtentCucumberAdapter::addTestStepLog;
+
+    private enum Kind {
+        INFO("[INFO] ", Level.INFO), PASS("[PASS] ", Level.INFO), WARNING("[WARNING] ", Level.WARN),
+        FAIL("[FAIL] ", Level.ERROR), ERROR("[ERROR] ", Level.ERROR), TABLE("", null);
+
+        final String prefix;
+        final Level level;
+
+        Kind(String prefix, Level level) {
+            this.prefix = prefix;
+            this.level = level;
+        }
+    }
+
+    private final Logger logger;
+
+    private TestLog(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static TestLog of(Class<?> cls) {
+        return new TestLog(LoggerHelper.getLogger(cls));
+    }
+
+    /**
+     * The underlying logger, for messages that belong in the log file only.
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    // -----------------------------------------
+    // LEVELS
+    // -----------------------------------------
+    public void info(String message) {
+        log(Kind.INFO, message, 0, null, null, null);
+    }
+
+    public void info(String pattern, Object arg) {
+        log(Kind.INFO, pattern, 1, arg, null, null);
+    }
+
+    public void info(String pattern, Object arg0, Object arg1) {
+        log(Kind.INFO, pattern, 2, arg0, arg1, null);
+    }
+
+    public void info(String pattern, Object... args) {
+        log(Kind.INFO, pattern, -1, null, null, args);
+    }
+
+    public void pass(String message) {
+        log(Kind.PASS, message, 0, null, null, null);
+    }
+
+    public void pass(String pattern, Object arg) {
+        log(Kind.PASS, pattern, 1, arg, null, null);
+    }
+
+    public void pass(String pattern, Object arg0, Object arg1) {
+        log(Kind.PASS, pattern, 2, arg0, arg1, null);
+    }
+
+    public void pass(String pattern, Object... args) {
+        log(Kind.PASS, pattern, -1, null, null, args);
+    }
+
+    public void warn(String message) {
+        log(Kind.WARNING, message, 0, null, null, null);
+    }
+
+    public void warn(String pattern, Object arg) {
+        log(Kind.WARNING, pattern, 1, arg, null, null);
+    }
+
+    public void warn(String pattern, Object arg0, Object arg1) {
+        log(Kind.WARNING, pattern, 2, arg0, arg1, null);
+    }
+
+    public void warn(String pattern, Object... args) {
+        log(Kind.WARNING, pattern, -1, null, null, args);
+    }
+
+    public void fail(String message) {
+        log(Kind.FAIL, message, 0, null, null, null);
+    }
+
+    public void fail(String pattern, Object arg) {
+        log(Kind.FAIL, pattern, 1, arg, null, null);
+    }
+
+    public void fail(String pattern, Object arg0, Object arg1) {
+        log(Kind.FAIL, pattern, 2, arg0, arg1, null);
+    }
+
+    public void fail(String pattern, Object... args) {
+        log(Kind.FAIL, pattern, -1, null, null, args);
+    }
+
+    public void error(String message) {
+        log(Kind.ERROR, message, 0, null, null, null);
+    }
+
+    public void error(String pattern, Object arg) {
+        log(Kind.ERROR, pattern, 1, arg, null, null);
+    }
+
+    public void error(String pattern, Object arg0, Object arg1) {
+        log(Kind.ERROR, pattern, 2, arg0, arg1, null);
+    }
+
+    public void error(String pattern, Object... args) {
+        log(Kind.ERROR, pattern, -1, null, null, args);
+    }
+
+    /**
+     * Adds a table (first row is the header) to the step log; not written to log4j.
+     */
+    public void table(String[][] rows) {
+        if (ExtentLogger.isEnabled()) {
+            append(Kind.TABLE, MarkupHelper.createTable(rows).getMarkup(), 0, null, null, null);
+        }
+    }
+
+    private void log(Kind kind, String pattern, int argCount, Object arg0, Object arg1, Object[] args) {
+        switch (argCount) {
+        case 0:
+            logger.log(kind.level, pattern);
+            break;
+        case 1:
+            logger.log(kind.level, pattern, arg0);
+            break;
+        case 2:
+            logger.log(kind.level, pattern, arg0, arg1);
+            break;
+        default:
+            logger.log(kind.level, pattern, args);
+        }
+        if (ExtentLogger.isEnabled()) {
+            append(kind, pattern, argCount, arg0, arg1, args);
+        }
+    }
+
+    private static void append(Kind kind, String pattern, int argCount, Object arg0, Object arg1, Object[] args) {
+        Buffer buffer = buffers.get();
+        if (!buffered) {
+            buffer.add(kind, pattern, argCount, arg0, arg1, args);
+            buffer.flush();
+            return;
+        }
+        if (buffer.size >= MAX_BUFFERED) {
+            buffer.dropped++;
+            return;
+        }
+        buffer.add(kind, pattern, argCount, arg0, arg1, args);
+        if (buffer.size >= BATCH_SIZE && buffer.inStep) {
+            buffer.flush();
+        }
+    }
+
+    // -----------------------------------------
+    // STEP LIFECYCLE (driven by TestLogFlusher)
+    // -----------------------------------------
+    static void setBuffered(boolean value) {
+        buffered = value;
+    }
+
+    /** A scenario starts on this thread: whatever an earlier one left unflushed is dropped. */
+    static void scenarioStarted() {
+        Buffer buffer = buffers.get();
+        buffer.clear();
+        buffer.stepSeen = false;
+        buffer.inStep = false;
+    }
+
+    static void stepStarted() {
+        Buffer buffer = buffers.get();
+        buffer.stepSeen = true;
+        buffer.inStep = true;
+    }
+
+    static void stepFinished() {
+        Buffer buffer = buffers.get();
+        buffer.flush();
+        buffer.inStep = false;
+    }
+
+    /** Events from {@code @After} hooks go to the last step; without any step they are dropped. */
+    static void scenarioFinished() {
+        Buffer buffer = buffers.get();
+        if (buffer.stepSeen) {
+            buffer.flush();
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The current thread's pending events. Entries are reused, so a steady step costs no
+     * allocation on the calling thread beyond what the arguments themselves need.
+     */
+    private static final class Buffer {
+        final List<Entry> entries = new ArrayList<>();
+        final StringBuilder text = new StringBuilder(256);
+        final Object[] oneArg = new Object[1];
+        final Object[] twoArgs = new Object[2];
+        int size;
+        int dropped;
+        boolean stepSeen;
+        boolean inStep;
+
+        void add(Kind kind, String pattern, int argCount, Object arg0, Object arg1, Object[] args) {
+            Entry entry;
+            if (size < entries.size()) {
+                entry = entries.get(size);
+            } else {
+                entry = new Entry();
+                entries.add(entry);
+            }
+            entry.kind = kind;
+            entry.pattern = pattern;
+            entry.argCount = argCount;
+            entry.arg0 = arg0;
+            entry.arg1 = arg1;
+            entry.args = args;
+            size++;
+        }
+
+        void flush() {
+            if (size == 0 && dropped == 0) {
+                return;
+            }
+            try {
+                for (int i = 0; i < size; i++) {
+                    Entry entry = entries.get(i);
+                    if (entry.kind == Kind.TABLE) {
+                        emitText();
+                        sink.accept(entry.pattern);
+                        continue;
+                    }
+                    if (text.length() > 0) {
+                        text.append("<br>");
+                    }
+                    text.append(entry.kind.prefix).append(format(entry));
+                }
+                if (dropped > 0) {
+                    text.append(text.length() > 0 ? "<br>" : "").append(Kind.WARNING.prefix).append(dropped)
+                            .append(" more event(s) not shown (testlog.extent.max.buffered)");
+                }
+                emitText();
+            } catch (RuntimeException e) {
+                // no current Extent step (e.g. outside a scenario): the events are in the log file
+                LoggerHelper.getLogger(TestLog.class).debug("Step log not added to Extent report: " + e.getMessage());
+            } finally {
+                text.setLength(0);
+                clear();
+            }
+        }
+
+        private void emitText() {
+            if (text.length() > 0) {
+                sink.accept(text.append('\n').toString());
+                text.setLength(0);
+            }
+        }
+
+        private String format(Entry entry) {
+            switch (entry.argCount) {
+            case 0:
+                return entry.pattern;
+            case 1:
+                oneArg[0] = entry.arg0;
+                return ParameterizedMessage.format(entry.pattern, oneArg);
+            case 2:
+                twoArgs[0] = entry.arg0;
+                twoArgs[1] = entry.arg1;
+                return ParameterizedMessage.format(entry.pattern, twoArgs);
+            default:
+                return ParameterizedMessage.format(entry.pattern, entry.args);
+            }
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                entries.get(i).clear();
+            }
+            oneArg[0] = null;
+            twoArgs[0] = null;
+            twoArgs[1] = null;
+            size = 0;
+            dropped = 0;
+        }
+    }
+
+    private static final class Entry {
+        Kind kind;
+        String pattern;
+        int argCount;
+        Object arg0;
+        Object arg1;
+        Object[] args;
+
+        void clear() {
+            pattern = null;
+            arg0 = null;
+            arg1 = null;
+            args = null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.utility;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
+
+/**
+ * Measures what one log call costs the test thread: the old pair of a concatenated
+ * {@code log.info(...)} plus {@code ExtentLogger.extentInfo(...)} against one
+ * {@link TestLog#info(String, Object, Object)} with step buffering.
+ * <p>
+ * The Extent adapter is replaced by a sink that only counts characters, and the log4j level
+ * is switched off, so what is left is the caller-side cost of building and handing over the
+ * message. Bytes are the heap allocated per call on the calling thread (HotSpot only).
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=com.utility.TestLogBenchmark
+ *     -Dexec.classpathScope=test -Dexec.args=2000000
+ * </pre>
+ */
+public class TestLogBenchmark {
+
+    private static final Logger logger = LoggerHelper.getLogger(TestLogBenchmark.class);
+    private static final TestLog testLog = TestLog.of(TestLogBenchmark.class);
+
+    // calls per simulated Cucumber step
+    private static final int STEP_SIZE = 20;
+
+    private static final String[] URLS = new String[8];
+
+    static {
+        for (int i = 0; i < URLS.length; i++) {
+            URLS[i] = "https://example.org/page/" + i;
+        }
+    }
+
+    private static long sinkChars;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Configurator.setLevel(TestLogBenchmark.class.getName(), Level.OFF);
+        TestLog.sink = text -> sinkChars += text.length();
+        TestLog.setBuffered(true);
+        TestLog.scenarioStarted();
+
+        System.out.println("Iterations: " + iterations + ", step size: " + STEP_SIZE);
+        for (boolean extent : new boolean[] { true, false }) {
+            ExtentLogger.setEnabled(extent);
+            String label = extent ? "Extent on " : "Extent off";
+            // first round warms up the JIT
+            for (int round = 0; round < 2; round++) {
+                Result eager = measure(iterations, TestLogBenchmark::eager, extent);
+                Result facade = measure(iterations, TestLogBenchmark::facade, extent);
+                if (round == 1) {
+                    System.out.println(label + " | log + ExtentLogger: " + eager);
+                    System.out.println(label + " | TestLog:            " + facade);
+                }
+            }
+        }
+        System.out.println("(sink received " + sinkChars + " chars)");
+    }
+
+    private interface Call {
+        void run(int i);
+    }
+
+    private static void eager(int i) {
+        String url = URLS[i & 7];
+        logger.info("Server responded with status code: " + 200 + " in " + i + " ms for " + url);
+        if (ExtentLogger.isEnabled()) {
+            // what ExtentLogger.extentInfo hands to the adapter
+            String message = "Server responded with status code: " + 200 + " in " + i + " ms for " + url;
+            TestLog.sink.accept("[INFO] " + message + "\n");
+        }
+    }
+
+    private static void facade(int i) {
+        testLog.info("Server responded with status code: 200 in {} ms for {}", i, URLS[i & 7]);
+    }
+
+    private static Result measure(int iterations, Call call, boolean steps) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (steps && i % STEP_SIZE == 0) {
+                TestLog.stepStarted();
+            }
+            call.run(i);
+            if (steps && i % STEP_SIZE == STEP_SIZE - 1) {
+                TestLog.stepFinished();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        return new Result((double) nanos / iterations,
+                allocatedAfter < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / iterations);
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static final class Result {
+        final double nanosPerCall;
+        final double bytesPerCall;
+
+        Result(double nanosPerCall, double bytesPerCall) {
+            this.nanosPerCall = nanosPerCall;
+            this.bytesPerCall = bytesPerCall;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%8.1f ns/call, %s", nanosPerCall,
+                    bytesPerCall < 0 ? "allocation n/a" : String.format(Locale.ROOT, "%6.1f bytes/call", bytesPerCall));
+        }
+    }
+}
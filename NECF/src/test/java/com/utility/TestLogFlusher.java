@@ -0,0 +1,34 @@
+package com.utility;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Cucumber plugin that hands the events buffered by {@link TestLog} to the Extent report
+ * once per step. Cucumber publishes these events on the thread running the scenario, which
+ * is the thread whose buffer is flushed. Register it next to the Extent adapter.
+ */
+public class TestLogFlusher implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        TestLog.setBuffered(true);
+        publisher.registerHandlerFor(TestCaseStarted.class, event -> TestLog.scenarioStarted());
+        publisher.registerHandlerFor(TestStepStarted.class, event -> {
+            if (event.getTestStep() instanceof PickleStepTestStep) {
+                TestLog.stepStarted();
+            }
+        });
+        publisher.registerHandlerFor(TestStepFinished.class, event -> {
+            if (event.getTestStep() instanceof PickleStepTestStep) {
+                TestLog.stepFinished();
+            }
+        });
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> TestLog.scenarioFinished());
+    }
+}
@@ -0,0 +1,199 @@
+package com.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.Logger;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.service.ExtentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Cucumber plugin that times every step and hook.
+ * <p>
+ * Durations are aggregated per step text / hook method and fed into the
+ * {@code necf_step_duration_seconds} histogram. When the run finishes the
+ * breakdown, slowest first, is logged, written to
+ * {@code target/timing/timing-breakdown.json} and added to the Extent report.
+ */
+public class TimingListener implements ConcurrentEventListener {
+
+    private static final Logger log = LoggerHelper.getLogger(TimingListener.class);
+    private static final String OUTPUT_FILE = "target/timing/timing-breakdown.json";
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> stepDuration = MetricsRegistry
+            .histogram("necf_step_duration_seconds", "Duration of steps and hooks", "type", "name");
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<TestStep, Long> started = new ConcurrentHashMap<>();
+    private final LongAdder scenarioNanos = new LongAdder();
+    private final LongAdder scenarioCount = new LongAdder();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> onRunFinished());
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        started.put(event.getTestStep(), System.nanoTime());
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        Long start = started.remove(event.getTestStep());
+        Duration duration = event.getResult().getDuration();
+        long nanos = duration != null && !duration.isZero() ? duration.toNanos()
+                : start != null ? System.nanoTime() - start : 0;
+
+        String type;
+        String name;
+        TestStep step = event.getTestStep();
+        if (step instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) step;
+            type = "step";
+            name = pickleStep.getStep().getKeyword().trim() + " " + pickleStep.getStep().getText();
+        } else if (step instanceof HookTestStep) {
+            type = "hook:" + ((HookTestStep) step).getHookType().name().toLowerCase();
+            name = step.getCodeLocation();
+        } else {
+            return;
+        }
+
+        stats.computeIfAbsent(type + "\t" + name, k -> new Stats(type, name)).record(nanos);
+        stepDuration.labels(type, name).observeNanos(nanos);
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        Duration duration = event.getResult().getDuration();
+        if (duration != null) {
+            scenarioNanos.add(duration.toNanos());
+            scenarioCount.increment();
+        }
+    }
+
+    private void onRunFinished() {
+        List<Stats> ranked = new ArrayList<>(stats.values());
+        ranked.sort((a, b) -> Long.compare(b.total.sum(), a.total.sum()));
+        if (ranked.isEmpty()) {
+            return;
+        }
+
+        String[][] table = toTable(ranked);
+        StringBuilder text = new StringBuilder("Timing breakdown (slowest first, "
+                + scenarioCount.sum() + " scenario(s), " + TimeUnit.NANOSECONDS.toMillis(scenarioNanos.sum())
+                + " ms in total):");
+        for (String[] row : table) {
+            text.append(String.format("%n  %-16s %-60s %8s %10s %10s %10s", (Object[]) row));
+        }
+        log.info(text.toString());
+
+        writeJson(ranked);
+        addToExtent(table);
+    }
+
+    private String[][] toTable(List<Stats> ranked) {
+        String[][] table = new String[ranked.size() + 1][];
+        table[0] = new String[] { "Type", "Name", "Count", "Total ms", "Avg ms", "Max ms" };
+        for (int i = 0; i < ranked.size(); i++) {
+            Stats s = ranked.get(i);
+            table[i + 1] = new String[] { s.type, s.name, String.valueOf(s.count.sum()),
+                    String.valueOf(s.totalMillis()), String.valueOf(s.avgMillis()), String.valueOf(s.maxMillis()) };
+        }
+        return table;
+    }
+
+    private void writeJson(List<Stats> ranked) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Stats s : ranked) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("type", s.type);
+            row.put("name", s.name);
+            row.put("count", s.count.sum());
+            row.put("totalMs", s.totalMillis());
+            row.put("avgMs", s.avgMillis());
+            row.put("maxMs", s.maxMillis());
+            rows.add(row);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("scenarios", scenarioCount.sum());
+        json.put("scenarioTotalMs", TimeUnit.NANOSECONDS.toMillis(scenarioNanos.sum()));
+        json.put("entries", rows);
+        try {
+            File file = new File(OUTPUT_FILE);
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+            log.info("✔ Timing breakdown written to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write timing breakdown: " + e.getMessage());
+        }
+    }
+
+    private void addToExtent(String[][] table) {
+        if (!ExtentLogger.isEnabled()) {
+            return;
+        }
+        try {
+            ExtentReports extent = ExtentService.getInstance();
+            extent.createTest("Timing Breakdown", "Steps and hooks, slowest first")
+                    .info(MarkupHelper.createTable(table));
+        } catch (Exception e) {
+            log.debug("Timing breakdown not added to Extent report: " + e.getMessage());
+        }
+    }
+
+    private static final class Stats {
+        final String type;
+        final String name;
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Stats(String type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        long totalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(total.sum());
+        }
+
+        long avgMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(total.sum() / n);
+        }
+
+        long maxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(max.get());
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package com.utility;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
+
+/**
+ * The only place the framework waits for the page.
+ * <p>
+ * Scenarios run with a zero implicit wait, so every lookup is bounded by exactly one
+ * timeout: {@code wait.timeout.ms} by default or the per-call {@link Duration}. The
+ * WebDriver mode polls every {@code wait.polling.ms}. With {@code wait.mode=browser},
+ * conditions on a {@link By} locator are evaluated inside the page by a single async
+ * script that re-checks on DOM mutations (coalesced with requestAnimationFrame) instead of
+ * a WebDriver round-trip per poll. Each wait's real duration is recorded in
+ * {@code necf_element_wait_seconds}.
+ */
+public class WaitEngine {
+
+    private static final Logger log = LoggerHelper.getLogger(WaitEngine.class);
+
+    public enum Mode {
+        WEBDRIVER, BROWSER
+    }
+
+    private static final MetricsRegistry.Family<MetricsRegistry.Histogram> waitTime = MetricsRegistry
+            .histogram("necf_element_wait_seconds", "Time spent waiting for an element condition", "condition");
+    private static final MetricsRegistry.Family<MetricsRegistry.Counter> timeouts = MetricsRegistry
+            .counter("necf_element_wait_timeouts", "Element waits that ran into their timeout", "condition");
+
+    /**
+     * arguments: using, value, condition, timeout ms, fallback poll ms, callback.
+     * Resolves with the element, true (for absent/invisible) or null on timeout.
+     */
+    private static final String BROWSER_WAIT_SCRIPT = String.join("\n",
+            "var using = arguments[0], value = arguments[1], condition = arguments[2];",
+            "var timeout = arguments[3], poll = arguments[4], done = arguments[arguments.length - 1];",
+            "function find() {",
+            "  if (using === 'xpath') {",
+            "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  }",
+            "  return document.querySelector(value);",
+            "}",
+            "function visible(el) {",
+            "  if (!el || !el.isConnected) return false;",
+            "  var style = window.getComputedStyle(el);",
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && parseFloat(style.opacity) > 0",
+            "      && el.getClientRects().length > 0;",
+            "}",
+            "function check() {",
+            "  var el = find();",
+            "  switch (condition) {",
+            "    case 'present': return el;",
+            "    case 'visible': return visible(el) ? el : null;",
+            "    case 'clickable': return visible(el) && !el.disabled ? el : null;",
+            "    case 'absent': return el ? null : true;",
+            "    case 'invisible': return visible(el) ? null : true;",
+            "  }",
+            "  return null;",
+            "}",
+            "var result = check();",
+            "if (result) { done(result); return; }",
+            "var finished = false, frameQueued = false;",
+            "function finish(value) {",
+            "  if (finished) return;",
+            "  finished = true; observer.disconnect(); clearInterval(fallback); clearTimeout(timer); done(value);",
+            "}",
+            "function tick() { frameQueued = false; if (!finished) { var r = check(); if (r) finish(r); } }",
+            "var observer = new MutationObserver(function () {",
+            "  if (!frameQueued) { frameQueued = true; window.requestAnimationFrame(tick); }",
+            "});",
+            "observer.observe(document.documentElement, { subtree: true, childList: true, attributes: true });",
+            // CSS transitions and animations change visibility without mutating the DOM
+            "var fallback = setInterval(tick, poll);",
+            "var timer = setTimeout(function () { finish(null); }, timeout);");
+
+    /**
+     * arguments: specs [{using, value, condition, expected}], timeout ms, fallback poll ms, callback.
+     * Resolves with [{ok, found, ms, text}] in spec order.
+     */
+    private static final String BATCH_SCRIPT = String.join("\n",
+            "var specs = arguments[0], timeout = arguments[1], poll = arguments[2];",
+            "var done = arguments[arguments.length - 1], start = performance.now();",
+            "function count(s) {",
+            "  if (s.using === 'xpath') {",
+            "    return document.evaluate(s.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;",
+            "  }",
+            "  return document.querySelectorAll(s.value).length;",
+            "}",
+            "function find(s) {",
+            "  if (s.using === 'xpath') {",
+            "    return document.evaluate(s.value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  }",
+            "  return document.querySelector(s.value);",
+            "}",
+            "function visible(el) {",
+            "  if (!el || !el.isConnected) return false;",
+            "  var style = window.getComputedStyle(el);",
+            "  return style.display !== 'none' && style.visibility !== 'hidden' && parseFloat(style.opacity) > 0",
+            "      && el.getClientRects().length > 0;",
+            "}",
+            "var patterns = specs.map(function (s) { return s.condition === 'TEXT_MATCHES' ? new RegExp(s.expected) : null; });",
+            "var results = specs.map(function () { return { ok: false, found: false, ms: 0, text: null }; });",
+            "function evaluate() {",
+            "  var pending = 0, now = Math.round(performance.now() - start), scrolling = false;",
+            "  for (var i = 0; i < specs.length; i++) {",
+            "    var s = specs[i], r = results[i];",
+            "    if (r.ok) continue;",
+            "    var el = find(s), text = el ? (el.innerText || el.textContent || '').trim() : null, ok;",
+            "    switch (s.condition) {",
+            "      case 'PRESENT': ok = !!el; break;",
+            "      case 'VISIBLE': ok = visible(el); break;",
+            "      case 'TEXT_CONTAINS': ok = text !== null && text.indexOf(s.expected) >= 0; break;",
+            "      case 'TEXT_MATCHES': ok = text !== null && patterns[i].test(text); break;",
+            "      default: ok = false;",
+            "    }",
+            "    r.found = !!el; r.text = text === null ? null : text.substring(0, 200); r.ms = now; r.ok = ok;",
+            "    if (!ok) pending++;",
+            "    if (!ok && s.scroll) {",
+            "      // one element at a time, in order: the next waits until this one is met",
+            "      if (!r.scrolled && el && !scrolling) { el.scrollIntoView({ block: 'center' }); r.scrolled = true; }",
+            "      if (r.scrolled) scrolling = true;",
+            "    }",
+            "  }",
+            "  return pending;",
+            "}",
+            "function report() {",
+            "  for (var i = 0; i < specs.length; i++) results[i].matches = count(specs[i]);",
+            "  done(results);",
+            "}",
+            "if (evaluate() === 0) { report(); return; }",
+            "var finished = false, frameQueued = false;",
+            "function finish() {",
+            "  if (finished) return;",
+            "  finished = true; observer.disconnect(); clearInterval(fallback); clearTimeout(timer); report();",
+            "}",
+            "function tick() { frameQueued = false; if (!finished && evaluate() === 0) finish(); }",
+            "var observer = new MutationObserver(function () {",
+            "  if (!frameQueued) { frameQueued = true; window.requestAnimationFrame(tick); }",
+            "});",
+            "observer.observe(document.documentElement, { subtree: true, childList: true, attributes: true, characterData: true });",
+            "var fallback = setInterval(tick, poll);",
+            "var timer = setTimeout(function () { evaluate(); finish(); }, timeout);");
+
+    private final WebDriver driver;
+    private final Duration defaultTimeout;
+    private final Duration polling;
+    private final Mode mode;
+    private final Duration scriptTimeout;
+
+    public WaitEngine(WebDriver driver) {
+        this(driver, ConfigReader.getDuration("wait.timeout.ms", TimeUnit.MILLISECONDS, 10000),
+                ConfigReader.getDuration("wait.polling.ms", TimeUnit.MILLISECONDS, 100),
+                ConfigReader.getEnum("wait.mode", Mode.class, Mode.WEBDRIVER));
+    }
+
+    public WaitEngine(WebDriver driver, Duration defaultTimeout, Duration polling, Mode mode) {
+        this.driver = driver;
+        this.defaultTimeout = defaultTimeout;
+        this.polling = polling;
+        this.mode = mode;
+        this.scriptTimeout = ConfigReader.getDuration("wait.script.timeout.ms",
+                TimeUnit.MILLISECONDS, 60000);
+        // async scripts (browser-side waits, batched checks) are bounded by their own timeout
+        driver.manage().timeouts().scriptTimeout(scriptTimeout);
+    }
+
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // -----------------------------------------
+    // WEBELEMENT CONDITIONS
+    // -----------------------------------------
+    public WebElement visible(WebElement element) {
+        return visible(element, defaultTimeout);
+    }
+
+    public WebElement visible(WebElement element, Duration timeout) {
+        return until("visible", ExpectedConditions.visibilityOf(element), timeout);
+    }
+
+    public WebElement clickable(WebElement element) {
+        return clickable(element, defaultTimeout);
+    }
+
+    public WebElement clickable(WebElement element, Duration timeout) {
+        return until("clickable", ExpectedConditions.elementToBeClickable(element), timeout);
+    }
+
+    // -----------------------------------------
+    // LOCATOR CONDITIONS
+    // -----------------------------------------
+    public WebElement visible(By locator, Duration timeout) {
+        return (WebElement) untilLocator("visible", locator, timeout,
+                ExpectedConditions.visibilityOfElementLocated(locator)::apply);
+    }
+
+    public WebElement clickable(By locator, Duration timeout) {
+        return (WebElement) untilLocator("clickable", locator, timeout,
+                ExpectedConditions.elementToBeClickable(locator)::apply);
+    }
+
+    public WebElement present(By locator, Duration timeout) {
+        return (WebElement) untilLocator("present", locator, timeout,
+                ExpectedConditions.presenceOfElementLocated(locator)::apply);
+    }
+
+    /**
+     * True once nothing matches the locator; false if something still does after the timeout.
+     */
+    public boolean absent(By locator, Duration timeout) {
+        return holds("absent", locator, timeout, d -> d.findElements(locator).isEmpty() ? Boolean.TRUE : null);
+    }
+
+    /**
+     * True once the element is hidden or gone; false if it is still visible after the timeout.
+     */
+    public boolean invisible(By locator, Duration timeout) {
+        return holds("invisible", locator, timeout, ExpectedConditions.invisibilityOfElementLocated(locator)::apply);
+    }
+
+    /**
+     * Non-throwing check that the element becomes visible within the timeout.
+     */
+    public boolean isVisible(By locator, Duration timeout) {
+        try {
+            visible(locator, timeout);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private boolean holds(String condition, By locator, Duration timeout, Function<WebDriver, Object> check) {
+        try {
+            untilLocator(condition, locator, timeout, check);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    // -----------------------------------------
+    // BATCHED CHECKS
+    // -----------------------------------------
+    /**
+     * Evaluates every check inside the page in one async script call. Checks that are not
+     * met yet are re-evaluated on DOM mutations and every polling interval until all hold or
+     * the timeout expires. Locators the script cannot evaluate are waited for one by one.
+     *
+     * @return results keyed by check name, in the order given
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, ElementCheck.Result> verifyAll(List<ElementCheck> checks, Duration timeout) {
+        List<ElementCheck> batched = new ArrayList<>();
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (ElementCheck check : checks) {
+            Map<String, Object> spec = check.toScriptArgument();
+            if (spec != null) {
+                batched.add(check);
+                specs.add(spec);
+            }
+        }
+
+        Map<ElementCheck, ElementCheck.Result> inPage = new HashMap<>();
+        if (!specs.isEmpty()) {
+            long start = System.nanoTime();
+            long budget = Math.min(timeout.toMillis(), scriptTimeout.toMillis() - 1000);
+            try {
+                List<Object> raw = (List<Object>) ((JavascriptExecutor) driver).executeAsyncScript(BATCH_SCRIPT,
+                        specs, budget, Math.max(50, polling.toMillis()));
+                for (int i = 0; i < batched.size(); i++) {
+                    Map<String, Object> r = (Map<String, Object>) raw.get(i);
+                    ElementCheck check = batched.get(i);
+                    boolean ok = Boolean.TRUE.equals(r.get("ok"));
+                    long ms = ((Number) r.get("ms")).longValue();
+                    inPage.put(check, new ElementCheck.Result(check, ok, Boolean.TRUE.equals(r.get("found")), ms,
+                            (String) r.get("text")));
+                    LocatorProfiler.checked(check, TimeUnit.MILLISECONDS.toNanos(ms),
+                            r.get("matches") instanceof Number ? ((Number) r.get("matches")).intValue() : 0, !ok);
+                }
+                record("batch", start, inPage.values().stream().anyMatch(r -> !r.isSatisfied()));
+                log.debug("Evaluated " + specs.size() + " element check(s) in one call: "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (WebDriverException e) {
+                // script blocked (CSP, navigation mid-wait): check them one by one instead
+                log.debug("Batched checks unavailable (" + e.getMessage() + "), polling instead");
+            }
+        }
+
+        Map<String, ElementCheck.Result> results = new LinkedHashMap<>();
+        for (ElementCheck check : checks) {
+            ElementCheck.Result result = inPage.get(check);
+            if (result == null) {
+                LocatorProfiler.declare(check);
+            }
+            results.put(check.getName(), result != null ? result : checkOne(check, timeout));
+        }
+        return results;
+    }
+
+    private ElementCheck.Result checkOne(ElementCheck check, Duration timeout) {
+        long start = System.nanoTime();
+        By locator = check.getLocator();
+        try {
+            WebElement element;
+            switch (check.getCondition()) {
+            case PRESENT:
+                element = present(locator, timeout);
+                break;
+            case VISIBLE:
+                if (check.isScrolledIntoView()) {
+                    ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView({ block: 'center' });",
+                            present(locator, timeout));
+                }
+                element = visible(locator, timeout);
+                break;
+            default:
+                element = until("text", d -> {
+                    WebElement candidate = d.findElement(locator);
+                    String text = candidate.getText();
+                    boolean ok = check.getCondition() == ElementCheck.Condition.TEXT_CONTAINS
+                            ? text.contains(check.getExpected())
+                            : check.getPattern().matcher(text).find();
+                    return ok ? candidate : null;
+                }, timeout);
+            }
+            return new ElementCheck.Result(check, true, true, (System.nanoTime() - start) / 1_000_000,
+                    element.getText());
+        } catch (TimeoutException e) {
+            boolean found = !driver.findElements(locator).isEmpty();
+            return new ElementCheck.Result(check, false, found, (System.nanoTime() - start) / 1_000_000, null);
+        }
+    }
+
+    // -----------------------------------------
+    // ENGINE
+    // -----------------------------------------
+    /**
+     * Polls {@code check} until it returns a non-null, non-false value.
+     */
+    public <T> T until(String condition, Function<WebDriver, T> check, Duration timeout) {
+        return until(condition, null, check, timeout);
+    }
+
+    private <T> T until(String condition, By locator, Function<WebDriver, T> check, Duration timeout) {
+        long start = System.nanoTime();
+        int[] polls = new int[1];
+        boolean timedOut = false;
+        LocatorProfiler.waitStarted();
+        try {
+            return new FluentWait<>(driver).withTimeout(timeout).pollingEvery(polling)
+                    .ignoring(NoSuchElementException.class).ignoring(StaleElementReferenceException.class)
+                    .withMessage(() -> condition + " after " + timeout.toMillis() + " ms").until(d -> {
+                        polls[0]++;
+                        return check.apply(d);
+                    });
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            long nanos = record(condition, start, timedOut);
+            LocatorProfiler.waitFinished(locator, nanos, polls[0], timedOut, matches(locator));
+        }
+    }
+
+    private Object untilLocator(String condition, By locator, Duration timeout, Function<WebDriver, Object> check) {
+        String[] selector = mode == Mode.BROWSER ? selectorOf(locator) : null;
+        if (selector == null || timeout.compareTo(scriptTimeout) >= 0) {
+            return until(condition, locator, check, timeout);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeAsyncScript(BROWSER_WAIT_SCRIPT, selector[0], selector[1],
+                    condition, timeout.toMillis(), Math.max(50, polling.toMillis()));
+        } catch (WebDriverException e) {
+            // script blocked (CSP, navigation mid-wait): finish the wait from the client side
+            log.debug("Browser-side wait unavailable (" + e.getMessage() + "), polling instead");
+            Duration left = timeout.minusNanos(System.nanoTime() - start);
+            return until(condition, locator, check, left.isNegative() ? Duration.ZERO : left);
+        }
+        // one round-trip, however often the page re-checked
+        LocatorProfiler.waitFinished(locator, record(condition, start, result == null), 1, result == null,
+                matches(locator));
+        if (result == null) {
+            throw new TimeoutException(condition + " " + locator + " after " + timeout.toMillis() + " ms");
+        }
+        return result;
+    }
+
+    /**
+     * How many nodes the locator matches, for the locator profile. Costs a round-trip, so
+     * only when profiling; -1 otherwise.
+     */
+    private int matches(By locator) {
+        if (locator == null || !LocatorProfiler.isEnabled()) {
+            return -1;
+        }
+        try {
+            return driver.findElements(locator).size();
+        } catch (WebDriverException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Converts a locator into the (strategy, value) pair the browser script understands.
+     */
+    static String[] selectorOf(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String using = parameters.using();
+        Object value = parameters.value();
+        if (!("css selector".equals(using) || "xpath".equals(using)) || !(value instanceof String)) {
+            return null;
+        }
+        return new String[] { using, (String) value };
+    }
+
+    private static long record(String condition, long start, boolean timedOut) {
+        long nanos = System.nanoTime() - start;
+        waitTime.labels(condition).observeNanos(nanos);
+        if (timedOut) {
+            timeouts.labels(condition).inc();
+            log.debug("Wait for " + condition + " timed out after " + nanos / 1_000_000 + " ms");
+        }
+        return nanos;
+    }
+}
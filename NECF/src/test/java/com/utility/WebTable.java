@@ -0,0 +1,288 @@
+package com.utility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.base.BaseClass;
+
+/**
+ * An HTML table addressed by header text and row number.
+ * <p>
+ * Row numbers count every {@code tr} of the table from 1, so the header row is row 1 and
+ * the first data row is row 2. A column is the position of its {@code th} in the
+ * header row, matched by normalized text.
+ * <p>
+ * The header map, the table element and each row's cells are looked up once and reused.
+ * If the table is re-rendered, the stale handles are dropped and the operation is retried
+ * once. {@link #fill} and {@link #read} touch any number of cells in a single script
+ * call. Rows come back as {@link ExcelRow}, so table data reads like sheet data.
+ */
+public class WebTable {
+
+    private static final Logger log = LoggerHelper.getLogger(WebTable.class);
+
+    private static final String HEADER_SCRIPT = String.join("\n",
+            "var row = arguments[0].querySelector('tr');",
+            "if (!row) return [];",
+            "return Array.prototype.filter.call(row.children, function (c) { return c.tagName === 'TH'; })",
+            "    .map(function (c) { return c.textContent.replace(/\\s+/g, ' ').trim(); });");
+
+    private static final String ROW_SCRIPT = String.join("\n",
+            "var row = arguments[0].querySelectorAll('tr')[arguments[1] - 1];",
+            "return row ? row.querySelectorAll(':scope > td') : null;");
+
+    /**
+     * arguments: table, [[row, column, text]...]. Sets inputs through the native value setter
+     * and fires input/change so frameworks see the edit. Returns the writes that had no target.
+     */
+    private static final String FILL_SCRIPT = String.join("\n",
+            "var rows = arguments[0].querySelectorAll('tr'), writes = arguments[1], cells = {}, missed = [];",
+            "function cellsOf(r) {",
+            "  if (!(r in cells)) cells[r] = rows[r - 1] ? rows[r - 1].querySelectorAll(':scope > td') : [];",
+            "  return cells[r];",
+            "}",
+            "function fire(el, type) { el.dispatchEvent(new Event(type, { bubbles: true })); }",
+            "for (var i = 0; i < writes.length; i++) {",
+            "  var w = writes[i], cell = cellsOf(w[0])[w[1]];",
+            "  var input = cell && cell.querySelector('input, textarea, select');",
+            "  if (input && (input.type === 'checkbox' || input.type === 'radio')) {",
+            "    input.checked = String(w[2]).toLowerCase() === 'true'; fire(input, 'input'); fire(input, 'change');",
+            "  } else if (input) {",
+            "    var setter = Object.getOwnPropertyDescriptor(Object.getPrototypeOf(input), 'value').set;",
+            "    setter.call(input, w[2]); fire(input, 'input'); fire(input, 'change');",
+            "  } else if (cell && cell.isContentEditable) {",
+            "    cell.textContent = w[2]; fire(cell, 'input');",
+            "  } else {",
+            "    missed.push('row ' + w[0] + ' column ' + (w[1] + 1));",
+            "  }",
+            "}",
+            "return missed;");
+
+    /**
+     * arguments: table. Returns [[rowNumber, value...]...] for every row with td cells;
+     * checkboxes read as booleans, form fields as their value, empty cells as null.
+     */
+    private static final String READ_SCRIPT = String.join("\n",
+            "var rows = arguments[0].querySelectorAll('tr'), grid = [];",
+            "for (var r = 0; r < rows.length; r++) {",
+            "  var tds = rows[r].querySelectorAll(':scope > td');",
+            "  if (!tds.length) continue;",
+            "  var line = [r + 1];",
+            "  for (var c = 0; c < tds.length; c++) {",
+            "    var input = tds[c].querySelector('input, textarea, select'), value;",
+            "    if (input && (input.type === 'checkbox' || input.type === 'radio')) value = input.checked;",
+            "    else if (input) value = input.value;",
+            "    else value = tds[c].innerText.trim();",
+            "    line.push(value === '' ? null : value);",
+            "  }",
+            "  grid.push(line);",
+            "}",
+            "return grid;");
+
+    private final WebDriver driver;
+    private final By locator;
+    private final WaitEngine wait;
+
+    private WebElement table;
+    private Map<String, Integer> header;
+    private final Map<Integer, List<WebElement>> rowCells = new HashMap<>();
+
+    /**
+     * The first table on the page.
+     */
+    public WebTable(WebDriver driver) {
+        this(driver, By.tagName("table"));
+    }
+
+    public WebTable(WebDriver driver, By locator) {
+        this(driver, locator, BaseClass.getWaitEngine() != null ? BaseClass.getWaitEngine() : new WaitEngine(driver));
+    }
+
+    /**
+     * @param wait used to wait for the table to be visible before it is first used
+     */
+    public WebTable(WebDriver driver, By locator, WaitEngine wait) {
+        this.driver = driver;
+        this.locator = locator;
+        this.wait = wait;
+    }
+
+    // -----------------------------------------
+    // SINGLE CELLS
+    // -----------------------------------------
+    /**
+     * Types into the cell's input, or into the cell itself when it has none.
+     */
+    public void sendText(String heading, int rowNum, String text) {
+        retryIfStale(() -> {
+            WebElement cell = cell(heading, rowNum);
+            List<WebElement> inputs = cell.findElements(By.xpath(".//input"));
+            WebElement target = inputs.isEmpty() ? cell : inputs.get(0);
+            if (inputs.isEmpty()) {
+                cell.click();
+            }
+            target.clear();
+            target.sendKeys(text);
+            return null;
+        });
+        log.info("Sent text '" + text + "' under heading '" + heading + "' in row " + rowNum);
+    }
+
+    public WebElement cell(String heading, int rowNum) {
+        int column = columnIndex(heading);
+        List<WebElement> cells = rowCells.computeIfAbsent(rowNum, this::fetchRow);
+        if (cells.isEmpty()) {
+            rowCells.remove(rowNum);
+            throw new IllegalArgumentException("Table " + locator + " has no data row " + rowNum);
+        }
+        if (column >= cells.size()) {
+            throw new IllegalArgumentException(
+                    "Row " + rowNum + " has " + cells.size() + " cell(s), no column '" + heading + "'");
+        }
+        return cells.get(column);
+    }
+
+    // -----------------------------------------
+    // BULK
+    // -----------------------------------------
+    /**
+     * Writes many cells in one script call: row {@code firstRow + i} gets the heading to text
+     * pairs of {@code rows.get(i)}.
+     *
+     * @throws IllegalStateException if some cells have nothing to write into
+     */
+    public void fill(int firstRow, List<Map<String, String>> rows) {
+        List<List<Object>> writes = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            for (Map.Entry<String, String> entry : rows.get(i).entrySet()) {
+                List<Object> write = new ArrayList<>(3);
+                write.add(firstRow + i);
+                write.add(columnIndex(entry.getKey()));
+                write.add(entry.getValue());
+                writes.add(write);
+            }
+        }
+        apply(writes);
+    }
+
+    /**
+     * Writes {@code values} down one column, starting at {@code firstRow}.
+     */
+    public void fillColumn(String heading, int firstRow, List<String> values) {
+        int column = columnIndex(heading);
+        List<List<Object>> writes = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            List<Object> write = new ArrayList<>(3);
+            write.add(firstRow + i);
+            write.add(column);
+            write.add(values.get(i));
+            writes.add(write);
+        }
+        apply(writes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(List<List<Object>> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Object> missed = retryIfStale(
+                () -> (List<Object>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, table(), writes));
+        if (!missed.isEmpty()) {
+            throw new IllegalStateException(missed.size() + " cell(s) of table " + locator
+                    + " have no input and are not editable: " + missed);
+        }
+        log.info("Filled " + writes.size() + " cell(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    /**
+     * Reads every data row in one script call.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ExcelRow> read() {
+        Map<String, Integer> columns = header();
+        List<Object> grid = retryIfStale(
+                () -> (List<Object>) ((JavascriptExecutor) driver).executeScript(READ_SCRIPT, table()));
+        List<ExcelRow> rows = new ArrayList<>(grid.size());
+        for (Object line : grid) {
+            List<Object> cells = (List<Object>) line;
+            Object[] values = cells.subList(1, cells.size()).toArray();
+            rows.add(new ExcelRow(((Number) cells.get(0)).intValue(), columns, values));
+        }
+        return rows;
+    }
+
+    // -----------------------------------------
+    // HANDLES
+    // -----------------------------------------
+    /**
+     * Heading text to 0-based column, in header order.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Integer> header() {
+        if (header == null) {
+            List<Object> names = retryIfStale(
+                    () -> (List<Object>) ((JavascriptExecutor) driver).executeScript(HEADER_SCRIPT, table()));
+            Map<String, Integer> columns = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                columns.putIfAbsent(String.valueOf(names.get(i)), i);
+            }
+            header = Collections.unmodifiableMap(columns);
+            log.debug("Table " + locator + " columns: " + header.keySet());
+        }
+        return header;
+    }
+
+    public int columnIndex(String heading) {
+        Integer column = header().get(heading.replaceAll("\\s+", " ").trim());
+        if (column == null) {
+            throw new IllegalArgumentException("No column '" + heading + "' in table header " + header.keySet());
+        }
+        return column;
+    }
+
+    /**
+     * Forgets the cached table, header and row handles.
+     */
+    public void invalidate() {
+        table = null;
+        header = null;
+        rowCells.clear();
+    }
+
+    private WebElement table() {
+        if (table == null) {
+            table = wait.visible(locator, wait.getDefaultTimeout());
+        }
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WebElement> fetchRow(int rowNum) {
+        Object cells = ((JavascriptExecutor) driver).executeScript(ROW_SCRIPT, table(), rowNum);
+        return cells == null ? Collections.emptyList() : (List<WebElement>) cells;
+    }
+
+    private <T> T retryIfStale(Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (StaleElementReferenceException e) {
+            log.debug("Table " + locator + " was re-rendered, looking it up again");
+            invalidate();
+            return action.get();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.webdrivermanager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import com.utility.LoggerHelper;
+
+/**
+ * Chrome DevTools Protocol access without the version-specific generated classes.
+ * <p>
+ * Commands and events are addressed by their protocol names ("Network.enable") and
+ * carry plain maps, so a Chrome update never needs a matching selenium-devtools module.
+ * Browsers without CDP (Firefox) simply get no session.
+ */
+public class DevToolsSupport {
+
+	private static final Logger log = LoggerHelper.getLogger(DevToolsSupport.class);
+
+	// drivers with an open session, so release only talks CDP to browsers that used it
+	private static final Map<WebDriver, DevTools> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private DevToolsSupport() {
+	}
+
+	/**
+	 * The driver's DevTools session, created on first use; null when the browser has none.
+	 */
+	public static DevTools open(WebDriver driver) {
+		if (!(driver instanceof HasDevTools)) {
+			return null;
+		}
+		try {
+			DevTools devTools = ((HasDevTools) driver).getDevTools();
+			devTools.createSessionIfThereIsNotOne();
+			sessions.put(driver, devTools);
+			return devTools;
+		} catch (Exception e) {
+			log.warn("⚠️ DevTools not available for this browser: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Undoes everything scenarios may have set through DevTools (blocked URLs, throttling,
+	 * cache override, request interception) and drops all listeners, so a pooled session
+	 * starts clean. Does nothing for drivers that never opened a session.
+	 */
+	public static void reset(WebDriver driver) {
+		DevTools devTools = sessions.remove(driver);
+		if (devTools == null) {
+			return;
+		}
+		devTools.clearListeners();
+		Map<String, Object> conditions = new LinkedHashMap<>();
+		conditions.put("offline", false);
+		conditions.put("latency", 0);
+		conditions.put("downloadThroughput", -1);
+		conditions.put("uploadThroughput", -1);
+		try {
+			send(devTools, "Fetch.disable");
+			send(devTools, "Network.setBlockedURLs", Collections.singletonMap("urls", Collections.emptyList()));
+			send(devTools, "Network.emulateNetworkConditions", conditions);
+			send(devTools, "Network.setCacheDisabled", Collections.singletonMap("cacheDisabled", false));
+			send(devTools, "Network.disable");
+		} catch (Exception e) {
+			log.warn("⚠️ Could not reset DevTools state: " + e.getMessage());
+		}
+	}
+
+	public static Map<String, Object> send(DevTools devTools, String method) {
+		return send(devTools, method, Collections.emptyMap());
+	}
+
+	/**
+	 * Sends a command and returns its result object (empty for commands without one).
+	 */
+	public static Map<String, Object> send(DevTools devTools, String method, Map<String, Object> params) {
+		Map<String, Object> result = devTools.send(new Command<Map<String, Object>>(method, params, Json.MAP_TYPE));
+		return result != null ? result : Collections.emptyMap();
+	}
+
+	public static Event<Map<String, Object>> event(String method) {
+		return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+	}
+
+	/**
+	 * Reads a nested value such as {@code "response.timing.requestTime"}; null if any part is missing.
+	 */
+	@SuppressWarnings("unchecked")
+	public static Object path(Map<String, Object> map, String path) {
+		Object current = map;
+		for (String part : path.split("\\.")) {
+			if (!(current instanceof Map)) {
+				return null;
+			}
+			current = ((Map<String, Object>) current).get(part);
+		}
+		return current;
+	}
+
+	public static double number(Map<String, Object> map, String path, double defaultValue) {
+		Object value = path(map, path);
+		return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+	}
+
+	public static String string(Map<String, Object> map, String path) {
+		Object value = path(map, path);
+		return value == null ? null : value.toString();
+	}
+}
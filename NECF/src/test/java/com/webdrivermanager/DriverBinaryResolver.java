@@ -0,0 +1,157 @@
+package com.webdrivermanager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import com.utility.ConfigReader;
+import com.utility.LoggerHelper;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Resolves the driver binary (chromedriver, geckodriver, msedgedriver) once per JVM.
+ * <p>
+ * The resolved path is kept in {@code resolved-drivers.properties} under
+ * {@code driver.cache.dir} (default {@code ~/.cache/necf-drivers}) and reused by later
+ * runs for {@code driver.cache.ttl.hours} while the binary is still there. Only then is
+ * WebDriverManager asked again. With {@code driver.resolver.offline=true} the network is
+ * never used. The cached path, or a {@code webdriver.*.driver} system property already
+ * set, must exist; otherwise the launch fails with a clear message.
+ */
+public class DriverBinaryResolver {
+
+	private static final Logger log = LoggerHelper.getLogger(DriverBinaryResolver.class);
+	private static final String INDEX_FILE = "resolved-drivers.properties";
+
+	private static final Map<String, Path> resolved = new ConcurrentHashMap<>();
+
+	private DriverBinaryResolver() {
+	}
+
+	/**
+	 * Makes the driver binary for the browser available to Selenium and returns its path.
+	 *
+	 * @param browser a capability browser name: chrome, firefox or MicrosoftEdge
+	 */
+	public static Path resolve(String browser) {
+		return resolved.computeIfAbsent(browser.toLowerCase(Locale.ROOT), DriverBinaryResolver::locate);
+	}
+
+	private static Path locate(String browser) {
+		String property = systemProperty(browser);
+		String preset = System.getProperty(property);
+		if (preset != null && Files.isExecutable(Paths.get(preset))) {
+			log.info("Using " + property + "=" + preset);
+			return Paths.get(preset);
+		}
+
+		boolean offline = ConfigReader.getBoolean("driver.resolver.offline", false);
+		long ttlMillis = ConfigReader.getDuration("driver.cache.ttl.hours", TimeUnit.HOURS, 24).toMillis();
+		Path dir = cacheDir();
+		Properties index = readIndex(dir);
+
+		String cachedPath = index.getProperty(browser + ".path");
+		long resolvedAt = Long.parseLong(index.getProperty(browser + ".resolvedAt", "0"));
+		if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))
+				&& (offline || System.currentTimeMillis() - resolvedAt < ttlMillis)) {
+			System.setProperty(property, cachedPath);
+			log.info("✔ " + browser + " driver from cache: " + cachedPath);
+			return Paths.get(cachedPath);
+		}
+		if (offline) {
+			throw new IllegalStateException("driver.resolver.offline is set but no " + browser
+					+ " driver is cached in " + dir + "; run once online or pass -D" + property + "=<path>");
+		}
+
+		long start = System.nanoTime();
+		WebDriverManager manager = manager(browser).cachePath(dir.resolve("binaries").toString());
+		manager.setup();
+		String path = manager.getDownloadedDriverPath();
+		if (path == null) {
+			// nothing to download (e.g. Selenium Manager will handle it): do not cache
+			log.warn("⚠️ WebDriverManager did not resolve a " + browser + " driver");
+			return null;
+		}
+		System.setProperty(property, path);
+		log.info("✔ " + browser + " driver " + manager.getDownloadedDriverVersion() + " resolved in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: " + path);
+
+		record(dir, browser, path, String.valueOf(manager.getDownloadedDriverVersion()));
+		return Paths.get(path);
+	}
+
+	private static WebDriverManager manager(String browser) {
+		switch (browser) {
+		case "firefox":
+			return WebDriverManager.firefoxdriver();
+		case "microsoftedge":
+		case "edge":
+			return WebDriverManager.edgedriver();
+		default:
+			return WebDriverManager.chromedriver();
+		}
+	}
+
+	private static String systemProperty(String browser) {
+		switch (browser) {
+		case "firefox":
+			return "webdriver.gecko.driver";
+		case "microsoftedge":
+		case "edge":
+			return "webdriver.edge.driver";
+		default:
+			return "webdriver.chrome.driver";
+		}
+	}
+
+	private static Path cacheDir() {
+		String configured = ConfigReader.getProperty("driver.cache.dir", "");
+		return configured.isEmpty() ? Paths.get(System.getProperty("user.home"), ".cache", "necf-drivers")
+				: Paths.get(configured);
+	}
+
+	// Several JVMs (parallel CI jobs) may share the index, so it is replaced atomically
+	private static synchronized Properties readIndex(Path dir) {
+		Properties index = new Properties();
+		Path file = dir.resolve(INDEX_FILE);
+		if (Files.exists(file)) {
+			try (InputStream in = Files.newInputStream(file)) {
+				index.load(in);
+			} catch (IOException e) {
+				log.warn("Ignoring unreadable driver cache index " + file + ": " + e.getMessage());
+			}
+		}
+		return index;
+	}
+
+	private static synchronized void record(Path dir, String browser, String path, String version) {
+		// re-read so entries written meanwhile for other browsers are kept
+		Properties index = readIndex(dir);
+		index.setProperty(browser + ".path", path);
+		index.setProperty(browser + ".version", version);
+		index.setProperty(browser + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+		try {
+			Files.createDirectories(dir);
+			Path tmp = Files.createTempFile(dir, INDEX_FILE, ".tmp");
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				index.store(out, "Driver binaries resolved by NECF");
+			}
+			Files.move(tmp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("Could not update driver cache index: " + e.getMessage());
+		}
+	}
+}
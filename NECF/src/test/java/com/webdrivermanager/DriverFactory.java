@@ -0,0 +1,39 @@
+package com.webdrivermanager;
+
+import java.util.Locale;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import com.utility.ConfigReader;
+
+/**
+ * Where browser sessions come from. {@code driver.backend} picks the implementation:
+ * {@code local} (default) launches browsers on this machine, {@code remote} opens
+ * sessions on the Selenium Grid endpoints in {@code grid.urls}.
+ */
+public interface DriverFactory {
+
+	/**
+	 * Starts a new session for the given options.
+	 */
+	WebDriver create(MutableCapabilities options);
+
+	/**
+	 * Ends a session created by this factory.
+	 */
+	void quit(WebDriver driver);
+
+	static DriverFactory fromConfig() {
+		String backend = ConfigReader.getProperty("driver.backend", "local").toLowerCase(Locale.ROOT);
+		switch (backend) {
+		case "local":
+			return new LocalDriverFactory();
+		case "remote":
+		case "grid":
+			return new RemoteDriverFactory();
+		default:
+			throw new IllegalArgumentException("Config 'driver.backend' must be local or remote, got '" + backend + "'");
+		}
+	}
+}
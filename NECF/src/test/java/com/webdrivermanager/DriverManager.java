@@ -1,16 +1,17 @@
 package com.webdrivermanager;
 
+import java.util.List;
+
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
+import com.utility.ConfigReader;
 import com.utility.LoggerHelper;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.utility.MetricsRegistry;
 
 public class DriverManager {
 
@@ -18,51 +19,87 @@ public class DriverManager {
 
 	private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
 
+	// local browsers or a Selenium Grid, per driver.backend
+	private static volatile DriverFactory factory;
+
+	private static final MetricsRegistry.Family<MetricsRegistry.Histogram> launchTime = MetricsRegistry
+			.histogram("necf_driver_launch_seconds", "Time to start a new browser session", "browser");
+
 	public static void setDriver(String browser) {
 
 		if (driver.get() == null) {
 
-			if (browser != null && browser.equalsIgnoreCase("chrome")) {
+			if (DriverPool.isEnabled()) {
+				driver.set(DriverPool.getInstance().lease(browser));
+			} else {
+				driver.set(createDriver(browser, buildOptions(browser)));
+			}
+		}
+	}
 
-				WebDriverManager.chromedriver().setup();
-				ChromeOptions options = new ChromeOptions();
-				options.addArguments("--headless=new"); // ✅ HEADLESS
-				options.addArguments("--remote-allow-origins=*");
+	/**
+	 * Headless options for the given browser. Unsupported browsers fall back to
+	 * Chrome, so the browser name of the returned options is always a real one.
+	 */
+	static MutableCapabilities buildOptions(String browser) {
 
-				driver.set(new ChromeDriver(options));
-				log.info("Launching Chrome in HEADLESS mode");
+		if (browser != null && browser.equalsIgnoreCase("chrome")) {
 
-			} else if (browser != null && browser.equalsIgnoreCase("firefox")) {
+			ChromeOptions options = new ChromeOptions();
+			options.addArguments("--headless=new"); // ✅ HEADLESS
+			options.addArguments("--remote-allow-origins=*");
+			return options;
 
-				WebDriverManager.firefoxdriver().setup();
-				FirefoxOptions options = new FirefoxOptions();
-				options.addArguments("--headless"); // ✅ HEADLESS
+		} else if (browser != null && browser.equalsIgnoreCase("firefox")) {
 
-				driver.set(new FirefoxDriver(options));
-				log.info("Launching Firefox in HEADLESS mode");
+			FirefoxOptions options = new FirefoxOptions();
+			options.addArguments("--headless"); // ✅ HEADLESS
+			return options;
 
-			} else if (browser != null && browser.equalsIgnoreCase("edge")) {
+		} else if (browser != null && browser.equalsIgnoreCase("edge")) {
 
-				WebDriverManager.edgedriver().setup();
-				EdgeOptions options = new EdgeOptions();
-				options.addArguments("--headless=new"); // ✅ HEADLESS
-				options.addArguments("--window-size=1920,1080");
+			EdgeOptions options = new EdgeOptions();
+			options.addArguments("--headless=new"); // ✅ HEADLESS
+			options.addArguments("--window-size=1920,1080");
+			return options;
 
-				driver.set(new EdgeDriver(options));
-				log.info("Launching Edge in HEADLESS mode");
+		} else {
 
-			} else {
+			log.warn("Browser not supported: " + browser + " - launching Chrome Headless instead");
+			ChromeOptions options = new ChromeOptions();
+			options.addArguments("--headless=new");
+			options.addArguments("--window-size=1920,1080");
+			return options;
+		}
+	}
 
-				log.warn("Browser not supported: " + browser + " - launching Chrome Headless instead");
-				WebDriverManager.chromedriver().setup();
+	/**
+	 * Starts a brand new browser session. Callers own the returned session; scenarios
+	 * should go through {@link #setDriver(String)} instead.
+	 */
+	static WebDriver createDriver(String browser, MutableCapabilities options) {
+		long start = System.nanoTime();
+		WebDriver created = factory().create(options);
+		launchTime.labels(options.getBrowserName()).observeNanos(System.nanoTime() - start);
+		return created;
+	}
 
-				ChromeOptions options = new ChromeOptions();
-				options.addArguments("--headless=new");
-				options.addArguments("--window-size=1920,1080");
+	/**
+	 * Ends a session through the factory that created it.
+	 */
+	static void destroy(WebDriver session) {
+		factory().quit(session);
+	}
 
-				driver.set(new ChromeDriver(options));
+	private static DriverFactory factory() {
+		if (factory == null) {
+			synchronized (DriverManager.class) {
+				if (factory == null) {
+					factory = DriverFactory.fromConfig();
+				}
 			}
 		}
+		return factory;
 	}
 
 	public static WebDriver getDriver() {
@@ -70,10 +107,56 @@ public class DriverManager {
 	}
 
 	public static void quitDriver() {
-		if (driver.get() != null) {
-			driver.get().quit();
+		WebDriver current = driver.get();
+		if (current != null) {
 			driver.remove();
-			log.info("Driver quit successfully");
+			if (DriverPool.isEnabled()) {
+				DriverPool.getInstance().release(current);
+				log.info("Driver returned to pool");
+			} else {
+				destroy(current);
+				log.info("Driver quit successfully");
+			}
+		}
+	}
+
+	/**
+	 * Starts pooled browsers in the background so the first scenarios find them warm:
+	 * {@code driver.prewarm.count} sessions (default 1) of each browser in
+	 * {@code driver.prewarm.browsers} (else {@code browser.matrix}, else chrome). The total is
+	 * capped at {@code parallel.threads}, since no more scenarios can start at once. Returns at
+	 * once; does nothing unless the pool and {@code driver.prewarm.enabled} are on.
+	 */
+	public static void prewarm() {
+		if (!DriverPool.isEnabled() || !ConfigReader.getBoolean("driver.prewarm.enabled", false)) {
+			return;
+		}
+		List<String> browsers = ConfigReader.getList("driver.prewarm.browsers");
+		if (browsers.isEmpty()) {
+			browsers = ConfigReader.getList("browser.matrix");
+		}
+		if (browsers.isEmpty()) {
+			browsers.add("chrome");
+		}
+		int perBrowser = Math.max(0, ConfigReader.getInt("driver.prewarm.count", 1));
+		int remaining = Math.max(1, ConfigReader.getInt("parallel.threads", 1));
+		for (int i = 0; i < browsers.size() && remaining > 0; i++) {
+			int count = Math.min(perBrowser, remaining);
+			remaining -= count;
+			try {
+				DriverPool.getInstance().prewarm(browsers.get(i).trim(), count);
+			} catch (RuntimeException e) {
+				log.warn("⚠️ Pre-warm of " + browsers.get(i) + " skipped: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Quits every pooled browser. Safe to call more than once.
+	 */
+	public static void shutdown() {
+		if (DriverPool.isEnabled()) {
+			DriverPool.getInstance().shutdown();
 		}
 	}
 }
@@ -0,0 +1,529 @@
+package com.webdrivermanager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import com.utility.ConfigReader;
+import com.utility.LoggerHelper;
+
+/**
+ * Pool of warm browser sessions keyed by browser type and options.
+ * <p>
+ * Sessions are leased per scenario, reset on release (cookies, storage, extra
+ * windows, about:blank), health-checked before reuse and evicted after sitting
+ * idle for longer than {@code driver.pool.idle.timeout.seconds}. {@link #prewarm} starts
+ * sessions in the background ahead of the first lease. Every browser that has been used is
+ * topped up in the background to {@code driver.pool.min.idle} idle sessions, as far as
+ * {@code driver.pool.max.size} allows.
+ */
+public class DriverPool {
+
+	private static final Logger log = LoggerHelper.getLogger(DriverPool.class);
+
+	private static volatile DriverPool instance;
+
+	private final int minIdle;
+	private final int maxSize;
+	private final long idleTimeoutMillis;
+	private final long leaseTimeoutMillis;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+	private final Map<String, Deque<PooledSession>> idle = new HashMap<>();
+	private final Map<WebDriver, PooledSession> leased = new IdentityHashMap<>();
+	// browser of every key leased so far, and sessions being started for it in the background
+	private final Map<String, String> browsers = new ConcurrentHashMap<>();
+	private final Map<String, Integer> warming = new HashMap<>();
+	private final ScheduledExecutorService evictor;
+	private final Metrics metrics = new Metrics();
+
+	// live sessions: idle + leased + currently launching
+	private int total;
+	private volatile boolean closed;
+
+	private DriverPool() {
+		this.minIdle = ConfigReader.getInt("driver.pool.min.idle", 0);
+		this.maxSize = Math.max(1, ConfigReader.getInt("driver.pool.max.size", 5));
+		this.idleTimeoutMillis = ConfigReader.getDuration("driver.pool.idle.timeout.seconds", TimeUnit.SECONDS, 300)
+				.toMillis();
+		this.leaseTimeoutMillis = ConfigReader.getDuration("driver.pool.lease.timeout.seconds", TimeUnit.SECONDS, 120)
+				.toMillis();
+
+		this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "driver-pool-evictor");
+			t.setDaemon(true);
+			return t;
+		});
+		long period = Math.max(1000, Math.min(idleTimeoutMillis / 2, 30_000));
+		evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+
+		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "driver-pool-shutdown"));
+		log.info("Driver pool created (min idle: " + minIdle + ", max size: " + maxSize + ", idle timeout: "
+				+ idleTimeoutMillis + " ms)");
+	}
+
+	public static boolean isEnabled() {
+		return ConfigReader.getBoolean("driver.pool.enabled", false);
+	}
+
+	public static DriverPool getInstance() {
+		if (instance == null) {
+			synchronized (DriverPool.class) {
+				if (instance == null) {
+					instance = new DriverPool();
+				}
+			}
+		}
+		return instance;
+	}
+
+	// -----------------------------------------
+	// LEASE / RELEASE
+	// -----------------------------------------
+	public WebDriver lease(String browser) {
+		MutableCapabilities options = DriverManager.buildOptions(browser);
+		String key = keyOf(options);
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+
+		while (true) {
+			PooledSession session = null;
+			PooledSession victim = null;
+			boolean launch = false;
+
+			lock.lock();
+			try {
+				while (session == null && !launch && victim == null) {
+					if (closed) {
+						throw new IllegalStateException("Driver pool is shut down");
+					}
+					browsers.putIfAbsent(key, browser);
+					Deque<PooledSession> sessions = idle.get(key);
+					session = sessions == null ? null : sessions.pollFirst();
+					if (session != null) {
+						break;
+					}
+					if (total < maxSize) {
+						total++;
+						launch = true;
+						break;
+					}
+					// pool is full: retire an idle session of another browser to make room
+					victim = pollIdleExcept(key);
+					if (victim != null) {
+						break;
+					}
+					long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						throw new IllegalStateException("Timed out after " + leaseTimeoutMillis
+								+ " ms waiting for a free browser session (max size " + maxSize + ")");
+					}
+					available.awaitNanos(remaining);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+			} finally {
+				lock.unlock();
+			}
+
+			if (victim != null) {
+				discard(victim, "make room for " + key);
+				continue;
+			}
+
+			if (launch) {
+				try {
+					session = new PooledSession(key, DriverManager.createDriver(browser, options));
+					metrics.launches.increment();
+				} catch (RuntimeException e) {
+					lock.lock();
+					try {
+						total--;
+						available.signalAll();
+					} finally {
+						lock.unlock();
+					}
+					throw e;
+				}
+			} else if (!isHealthy(session)) {
+				discard(session, "failed health check");
+				continue;
+			} else {
+				metrics.reuses.increment();
+			}
+
+			lock.lock();
+			try {
+				leased.put(session.driver, session);
+			} finally {
+				lock.unlock();
+			}
+
+			long waited = System.nanoTime() - start;
+			metrics.leaseWaitNanos.add(waited);
+			metrics.maxLeaseWaitNanos.accumulate(waited);
+			metrics.leases.increment();
+			log.debug("Leased " + key + " session (uses so far: " + session.useCount + ", waited "
+					+ TimeUnit.NANOSECONDS.toMillis(waited) + " ms)");
+			return session.driver;
+		}
+	}
+
+	/**
+	 * Launches up to {@code count} sessions of the browser in parallel on background threads
+	 * and parks them as idle, without waiting for them. The pool never grows past its max
+	 * size. A scenario that asks for the browser takes a pre-warmed session once one is idle.
+	 * Until then it launches its own while the pool has room, and only waits for a pre-warmed
+	 * one when the pool is full.
+	 *
+	 * @return the number of sessions being launched
+	 */
+	public int prewarm(String browser, int count) {
+		MutableCapabilities options = DriverManager.buildOptions(browser);
+		String key = keyOf(options);
+		int launching;
+		lock.lock();
+		try {
+			if (closed) {
+				return 0;
+			}
+			browsers.put(key, browser);
+			launching = reserveLaunches(key, count);
+		} finally {
+			lock.unlock();
+		}
+		if (launching > 0) {
+			launchIdle(browser, options, key, launching, "Pre-warmed");
+			log.info("Pre-warming " + launching + " " + browser + " session(s) in the background");
+		}
+		return launching;
+	}
+
+	/** Must be called with the lock held. Reserves room for up to {@code count} launches. */
+	private int reserveLaunches(String key, int count) {
+		int launching = Math.max(0, Math.min(count, maxSize - total));
+		total += launching;
+		warming.merge(key, launching, Integer::sum);
+		return launching;
+	}
+
+	/**
+	 * Starts reserved sessions in parallel on background threads and parks them as idle.
+	 */
+	private void launchIdle(String browser, MutableCapabilities options, String key, int count, String what) {
+		ExecutorService launcher = Executors.newFixedThreadPool(count, r -> {
+			Thread t = new Thread(r, "driver-pool-launcher");
+			t.setDaemon(true);
+			return t;
+		});
+		for (int i = 0; i < count; i++) {
+			launcher.execute(() -> {
+				long start = System.nanoTime();
+				PooledSession session;
+				try {
+					session = new PooledSession(key, DriverManager.createDriver(browser, options));
+				} catch (RuntimeException e) {
+					log.warn("⚠️ Could not start idle " + key + " session: " + e.getMessage());
+					lock.lock();
+					try {
+						warming.merge(key, -1, Integer::sum);
+						if (!closed) {
+							total--;
+						}
+						available.signalAll();
+					} finally {
+						lock.unlock();
+					}
+					return;
+				}
+				metrics.launches.increment();
+				lock.lock();
+				try {
+					warming.merge(key, -1, Integer::sum);
+					if (!closed) {
+						idle.computeIfAbsent(key, k -> new ArrayDeque<>()).addFirst(session);
+						available.signalAll();
+						session = null;
+					}
+				} finally {
+					lock.unlock();
+				}
+				if (session != null) {
+					// pool shut down while the browser was starting
+					quitQuietly(session.driver);
+					return;
+				}
+				log.info("✔ " + what + " " + key + " session in "
+						+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+			});
+		}
+		launcher.shutdown();
+	}
+
+	public void release(WebDriver driver) {
+		PooledSession session;
+		lock.lock();
+		try {
+			session = leased.remove(driver);
+		} finally {
+			lock.unlock();
+		}
+
+		if (session == null) {
+			log.warn("Released driver was not leased from the pool - quitting it");
+			quitQuietly(driver);
+			return;
+		}
+		if (closed || !reset(session)) {
+			discard(session, closed ? "pool shut down" : "reset failed");
+			return;
+		}
+
+		session.useCount++;
+		session.lastReturned = System.currentTimeMillis();
+		lock.lock();
+		try {
+			// LIFO keeps the hottest sessions in use and lets cold ones age out
+			idle.computeIfAbsent(session.key, k -> new ArrayDeque<>()).addFirst(session);
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void shutdown() {
+		List<PooledSession> sessions = new ArrayList<>();
+		lock.lock();
+		try {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (Deque<PooledSession> deque : idle.values()) {
+				sessions.addAll(deque);
+			}
+			idle.clear();
+			sessions.addAll(leased.values());
+			leased.clear();
+			total = 0;
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+
+		evictor.shutdownNow();
+		for (PooledSession session : sessions) {
+			quitQuietly(session.driver);
+		}
+		log.info("Driver pool shut down, " + sessions.size() + " session(s) closed. " + metrics);
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	// -----------------------------------------
+	// SESSION HYGIENE
+	// -----------------------------------------
+	private boolean isHealthy(PooledSession session) {
+		try {
+			session.driver.getWindowHandle();
+			return true;
+		} catch (Exception e) {
+			log.warn("Pooled " + session.key + " session is broken: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private boolean reset(PooledSession session) {
+		WebDriver driver = session.driver;
+		try {
+			Set<String> handles = driver.getWindowHandles();
+			String keep = handles.iterator().next();
+			for (String handle : handles) {
+				if (!handle.equals(keep)) {
+					driver.switchTo().window(handle).close();
+				}
+			}
+			driver.switchTo().window(keep);
+			DevToolsSupport.reset(driver);
+
+			// storage is per origin, so it has to be cleared before leaving the page
+			((JavascriptExecutor) driver).executeScript(
+					"try { window.localStorage.clear(); } catch (e) {}"
+							+ "try { window.sessionStorage.clear(); } catch (e) {}");
+			driver.manage().deleteAllCookies();
+			driver.get("about:blank");
+			return true;
+		} catch (Exception e) {
+			log.warn("Could not reset pooled " + session.key + " session: " + e.getMessage());
+			return false;
+		}
+	}
+
+	private void evictIdle() {
+		List<PooledSession> victims = new ArrayList<>();
+		Map<String, Integer> topUps = new HashMap<>();
+		long now = System.currentTimeMillis();
+		lock.lock();
+		try {
+			for (Deque<PooledSession> deque : idle.values()) {
+				Iterator<PooledSession> oldestFirst = deque.descendingIterator();
+				while (oldestFirst.hasNext() && deque.size() > minIdle) {
+					PooledSession session = oldestFirst.next();
+					if (now - session.lastReturned < idleTimeoutMillis) {
+						break;
+					}
+					oldestFirst.remove();
+					total--;
+					victims.add(session);
+				}
+			}
+			if (!victims.isEmpty()) {
+				available.signalAll();
+			}
+			if (minIdle > 0 && !closed) {
+				for (Map.Entry<String, String> entry : browsers.entrySet()) {
+					String key = entry.getKey();
+					Deque<PooledSession> deque = idle.get(key);
+					int missing = minIdle - (deque == null ? 0 : deque.size()) - warming.getOrDefault(key, 0);
+					if (missing > 0) {
+						int launching = reserveLaunches(key, missing);
+						if (launching > 0) {
+							topUps.put(key, launching);
+						}
+					}
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		for (PooledSession session : victims) {
+			metrics.evictions.increment();
+			log.info("Evicting idle " + session.key + " session after " + session.useCount + " use(s)");
+			quitQuietly(session.driver);
+		}
+		for (Map.Entry<String, Integer> topUp : topUps.entrySet()) {
+			String browser = browsers.get(topUp.getKey());
+			log.info("Topping up " + topUp.getKey() + " to " + minIdle + " idle session(s)");
+			launchIdle(browser, DriverManager.buildOptions(browser), topUp.getKey(), topUp.getValue(), "Topped up");
+		}
+	}
+
+	/** Must be called with the lock held. */
+	private PooledSession pollIdleExcept(String key) {
+		for (Map.Entry<String, Deque<PooledSession>> entry : idle.entrySet()) {
+			if (!entry.getKey().equals(key) && !entry.getValue().isEmpty()) {
+				return entry.getValue().pollLast();
+			}
+		}
+		return null;
+	}
+
+	private void discard(PooledSession session, String reason) {
+		lock.lock();
+		try {
+			if (!closed) {
+				total--;
+			}
+			available.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		metrics.discards.increment();
+		log.info("Discarding pooled " + session.key + " session: " + reason);
+		quitQuietly(session.driver);
+	}
+
+	private static void quitQuietly(WebDriver driver) {
+		try {
+			DriverManager.destroy(driver);
+		} catch (Exception e) {
+			log.debug("Ignoring error while quitting driver: " + e.getMessage());
+		}
+	}
+
+	private static String keyOf(MutableCapabilities options) {
+		return options.getBrowserName() + options.asMap();
+	}
+
+	private static final class PooledSession {
+		final String key;
+		final WebDriver driver;
+		int useCount;
+		volatile long lastReturned = System.currentTimeMillis();
+
+		PooledSession(String key, WebDriver driver) {
+			this.key = key;
+			this.driver = driver;
+		}
+	}
+
+	/**
+	 * Lock-free pool counters.
+	 */
+	public static final class Metrics {
+		private final LongAdder launches = new LongAdder();
+		private final LongAdder reuses = new LongAdder();
+		private final LongAdder leases = new LongAdder();
+		private final LongAdder discards = new LongAdder();
+		private final LongAdder evictions = new LongAdder();
+		private final LongAdder leaseWaitNanos = new LongAdder();
+		private final LongAccumulator maxLeaseWaitNanos = new LongAccumulator(Math::max, 0);
+
+		public long getLaunchCount() {
+			return launches.sum();
+		}
+
+		public long getReuseCount() {
+			return reuses.sum();
+		}
+
+		public long getDiscardCount() {
+			return discards.sum();
+		}
+
+		public long getEvictionCount() {
+			return evictions.sum();
+		}
+
+		public long getAverageLeaseWaitMillis() {
+			long count = leases.sum();
+			return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.sum() / count);
+		}
+
+		public long getMaxLeaseWaitMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get());
+		}
+
+		@Override
+		public String toString() {
+			return "Pool metrics [launches=" + getLaunchCount() + ", reuses=" + getReuseCount() + ", discards="
+					+ getDiscardCount() + ", evictions=" + getEvictionCount() + ", avg lease wait="
+					+ getAverageLeaseWaitMillis() + " ms, max lease wait=" + getMaxLeaseWaitMillis() + " ms]";
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.webdrivermanager;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import com.utility.LoggerHelper;
+
+/**
+ * Launches browsers on this machine; driver binaries come from {@link DriverBinaryResolver}.
+ */
+public class LocalDriverFactory implements DriverFactory {
+
+	private static final Logger log = LoggerHelper.getLogger(LocalDriverFactory.class);
+
+	@Override
+	public WebDriver create(MutableCapabilities options) {
+
+		if (options instanceof FirefoxOptions) {
+
+			DriverBinaryResolver.resolve(options.getBrowserName());
+			log.info("Launching Firefox in HEADLESS mode");
+			return new FirefoxDriver((FirefoxOptions) options);
+
+		} else if (options instanceof EdgeOptions) {
+
+			DriverBinaryResolver.resolve(options.getBrowserName());
+			log.info("Launching Edge in HEADLESS mode");
+			return new EdgeDriver((EdgeOptions) options);
+
+		} else {
+
+			DriverBinaryResolver.resolve(options.getBrowserName());
+			log.info("Launching Chrome in HEADLESS mode");
+			return new ChromeDriver((ChromeOptions) options);
+		}
+	}
+
+	@Override
+	public void quit(WebDriver driver) {
+		driver.quit();
+	}
+}
@@ -0,0 +1,165 @@
+package com.webdrivermanager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+
+import com.utility.ConfigReader;
+import com.utility.LoggerHelper;
+
+/**
+ * Named network profiles for a browser session, chosen per scenario with a
+ * {@code @network=<name>} tag.
+ * <p>
+ * A profile is read from Config.properties:
+ * <ul>
+ * <li>{@code network.profile.<name>.block} - URL patterns ({@code *} wildcards) that are
+ * never requested</li>
+ * <li>{@code network.profile.<name>.block.types} - resource types (Image, Font, Media,
+ * Stylesheet, Script, ...) that are failed through request interception</li>
+ * <li>{@code network.profile.<name>.throttle} - one of {@link #PRESETS}</li>
+ * <li>{@code network.profile.<name>.cache} - false disables the browser cache</li>
+ * </ul>
+ * A throttle preset name can also be used on its own ({@code @network=slow-3g}). Everything
+ * is undone when the session goes back to the pool.
+ */
+public class NetworkProfiles {
+
+	private static final Logger log = LoggerHelper.getLogger(NetworkProfiles.class);
+
+	/**
+	 * Throttling presets as {latency ms, download bytes/s, upload bytes/s}, matching the
+	 * Chrome DevTools ones.
+	 */
+	public static final Map<String, double[]> PRESETS;
+
+	static {
+		Map<String, double[]> presets = new LinkedHashMap<>();
+		presets.put("none", new double[] { 0, -1, -1 });
+		presets.put("4g", new double[] { 150, 9_000_000 * 0.9 / 8, 1_500_000 * 0.9 / 8 });
+		presets.put("fast-3g", new double[] { 562.5, 1_600_000 * 0.9 / 8, 750_000 * 0.9 / 8 });
+		presets.put("slow-3g", new double[] { 2000, 500_000 * 0.8 / 8, 500_000 * 0.8 / 8 });
+		presets.put("offline", new double[] { 0, 0, 0 });
+		PRESETS = Collections.unmodifiableMap(presets);
+	}
+
+	private NetworkProfiles() {
+	}
+
+	/**
+	 * Applies the profile to the driver's DevTools session. Browsers without DevTools run
+	 * unrestricted, with a warning.
+	 *
+	 * @throws IllegalArgumentException if no such profile is configured
+	 */
+	public static void apply(WebDriver driver, String name) {
+		Profile profile = Profile.of(name);
+		DevTools devTools = DevToolsSupport.open(driver);
+		if (devTools == null) {
+			log.warn("⚠️ Network profile '" + name + "' ignored: browser has no DevTools");
+			return;
+		}
+
+		DevToolsSupport.send(devTools, "Network.enable");
+		if (!profile.blockedUrls.isEmpty()) {
+			DevToolsSupport.send(devTools, "Network.setBlockedURLs",
+					Collections.singletonMap("urls", profile.blockedUrls));
+		}
+		if (!profile.blockedTypes.isEmpty()) {
+			List<Map<String, Object>> patterns = new ArrayList<>();
+			for (String type : profile.blockedTypes) {
+				Map<String, Object> pattern = new HashMap<>();
+				pattern.put("urlPattern", "*");
+				pattern.put("resourceType", type);
+				pattern.put("requestStage", "Request");
+				patterns.add(pattern);
+			}
+			// only blocked types are paused, so every paused request is failed
+			devTools.addListener(DevToolsSupport.event("Fetch.requestPaused"), event -> {
+				Map<String, Object> params = new HashMap<>();
+				params.put("requestId", event.get("requestId"));
+				params.put("errorReason", "BlockedByClient");
+				try {
+					DevToolsSupport.send(devTools, "Fetch.failRequest", params);
+				} catch (Exception e) {
+					log.debug("Could not fail intercepted request: " + e.getMessage());
+				}
+			});
+			DevToolsSupport.send(devTools, "Fetch.enable", Collections.singletonMap("patterns", patterns));
+		}
+		if (profile.throttle != null) {
+			double[] preset = PRESETS.get(profile.throttle);
+			Map<String, Object> conditions = new LinkedHashMap<>();
+			conditions.put("offline", "offline".equals(profile.throttle));
+			conditions.put("latency", preset[0]);
+			conditions.put("downloadThroughput", preset[1]);
+			conditions.put("uploadThroughput", preset[2]);
+			DevToolsSupport.send(devTools, "Network.emulateNetworkConditions", conditions);
+		}
+		if (!profile.cache) {
+			DevToolsSupport.send(devTools, "Network.setCacheDisabled", Collections.singletonMap("cacheDisabled", true));
+		}
+		log.info("Network profile applied: " + profile);
+	}
+
+	private static final class Profile {
+		final String name;
+		final List<String> blockedUrls;
+		final List<String> blockedTypes;
+		final String throttle;
+		final boolean cache;
+
+		private Profile(String name, List<String> blockedUrls, List<String> blockedTypes, String throttle,
+				boolean cache) {
+			this.name = name;
+			this.blockedUrls = blockedUrls;
+			this.blockedTypes = blockedTypes;
+			this.throttle = throttle;
+			this.cache = cache;
+		}
+
+		static Profile of(String name) {
+			String prefix = "network.profile." + name + ".";
+			List<String> blockedUrls = ConfigReader.getList(prefix + "block");
+			List<String> blockedTypes = new ArrayList<>();
+			for (String type : ConfigReader.getList(prefix + "block.types")) {
+				// CDP resource types are capitalised: Image, Font, XHR, ...
+				blockedTypes.add(type.equalsIgnoreCase("xhr") ? "XHR"
+						: type.substring(0, 1).toUpperCase(Locale.ROOT) + type.substring(1).toLowerCase(Locale.ROOT));
+			}
+			String throttle = ConfigReader.getProperty(prefix + "throttle", null);
+			String cache = ConfigReader.getProperty(prefix + "cache", null);
+
+			if (blockedUrls.isEmpty() && blockedTypes.isEmpty() && throttle == null && cache == null) {
+				if (PRESETS.containsKey(name.toLowerCase(Locale.ROOT))) {
+					throttle = name;
+				} else {
+					throw new IllegalArgumentException("Unknown network profile '" + name + "': configure "
+							+ prefix + "* or use a throttle preset " + PRESETS.keySet());
+				}
+			}
+			if (throttle != null) {
+				throttle = throttle.toLowerCase(Locale.ROOT);
+				if (!PRESETS.containsKey(throttle)) {
+					throw new IllegalArgumentException("Config '" + prefix + "throttle' must be one of "
+							+ PRESETS.keySet() + ", got '" + throttle + "'");
+				}
+			}
+			return new Profile(name, blockedUrls, blockedTypes, throttle, cache == null || Boolean.parseBoolean(cache));
+		}
+
+		@Override
+		public String toString() {
+			return name + " [blocked urls=" + blockedUrls.size() + ", blocked types=" + blockedTypes + ", throttle="
+					+ (throttle != null ? throttle : "none") + ", cache=" + (cache ? "on" : "off") + "]";
+		}
+	}
+}
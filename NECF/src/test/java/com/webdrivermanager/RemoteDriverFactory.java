@@ -0,0 +1,333 @@
+package com.webdrivermanager;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utility.ConfigReader;
+import com.utility.LoggerHelper;
+
+/**
+ * Opens {@link RemoteWebDriver} sessions on one or more Selenium Grid (or standalone
+ * server) endpoints listed in {@code grid.urls}.
+ * <p>
+ * {@code grid.routing=least-loaded} (default) sends each new session to the endpoint with
+ * the most free slots. Routing is per endpoint: a hub's free slots are summed over its UP
+ * nodes, and the hub itself places the session on a node. Free slots are read from the
+ * endpoint's {@code /status}, cached for {@code grid.status.refresh.ms}, and corrected for the
+ * sessions this JVM started or ended there since. Without a readable status,
+ * {@code grid.endpoint.capacity} minus the sessions this JVM holds there is used instead. The
+ * choice and the reservation of the slot happen together, so concurrent requests (such as
+ * the pool pre-warm) spread out instead of all picking the same endpoint. {@code round-robin} rotates
+ * through the endpoints. A failed session request is retried on another endpoint up to
+ * {@code grid.session.retries} times with exponential backoff. The failing endpoint is
+ * skipped for {@code grid.endpoint.cooldown.seconds}. Sessions are augmented, so DevTools
+ * works through the grid for Chromium browsers.
+ * <p>
+ * For a local check, start {@code java -jar selenium-server.jar standalone} and run with
+ * {@code -Ddriver.backend=remote} (grid.urls defaults to http://localhost:4444).
+ */
+public class RemoteDriverFactory implements DriverFactory {
+
+	private static final Logger log = LoggerHelper.getLogger(RemoteDriverFactory.class);
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	public enum Routing {
+		LEAST_LOADED, ROUND_ROBIN
+	}
+
+	private final List<Endpoint> endpoints = new ArrayList<>();
+	private final Routing routing;
+	private final int retries;
+	private final long backoffMillis;
+	private final Duration connectTimeout;
+	private final Duration sessionTimeout;
+	private final long statusRefreshMillis;
+	private final long cooldownMillis;
+	private final int defaultCapacity;
+
+	private final AtomicInteger next = new AtomicInteger();
+	private final Map<WebDriver, Endpoint> sessions = new ConcurrentHashMap<>();
+	private final HttpClient http;
+
+	public RemoteDriverFactory() {
+		this.routing = Routing.valueOf(ConfigReader.getProperty("grid.routing", "least-loaded")
+				.toUpperCase(Locale.ROOT).replace('-', '_'));
+		this.retries = Math.max(0, ConfigReader.getInt("grid.session.retries", 2));
+		this.backoffMillis = ConfigReader.getDuration("grid.session.retry.backoff.ms", TimeUnit.MILLISECONDS, 1000)
+				.toMillis();
+		this.connectTimeout = ConfigReader.getDuration("grid.connect.timeout.seconds", TimeUnit.SECONDS, 10);
+		this.sessionTimeout = ConfigReader.getDuration("grid.session.timeout.seconds", TimeUnit.SECONDS, 120);
+		this.statusRefreshMillis = ConfigReader.getDuration("grid.status.refresh.ms", TimeUnit.MILLISECONDS, 5000)
+				.toMillis();
+		this.cooldownMillis = ConfigReader.getDuration("grid.endpoint.cooldown.seconds", TimeUnit.SECONDS, 30)
+				.toMillis();
+		this.defaultCapacity = ConfigReader.getInt("grid.endpoint.capacity", 0);
+
+		List<String> urls = ConfigReader.getList("grid.urls");
+		if (urls.isEmpty()) {
+			urls.add("http://localhost:4444");
+		}
+		for (String url : urls) {
+			try {
+				endpoints.add(new Endpoint(new URL(url.endsWith("/") ? url.substring(0, url.length() - 1) : url)));
+			} catch (MalformedURLException e) {
+				throw new IllegalArgumentException("Config 'grid.urls' has an invalid URL: '" + url + "'", e);
+			}
+		}
+		this.http = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+		log.info("Remote driver backend: " + endpoints + " (routing: " + routing.name().toLowerCase(Locale.ROOT)
+				+ ", retries: " + retries + ")");
+	}
+
+	// -----------------------------------------
+	// SESSIONS
+	// -----------------------------------------
+	@Override
+	public WebDriver create(MutableCapabilities options) {
+		Set<Endpoint> tried = new HashSet<>();
+		WebDriverException last = null;
+		for (int attempt = 0; attempt <= retries; attempt++) {
+			Endpoint endpoint = reserve(tried);
+			if (endpoint == null) {
+				// every endpoint failed once: start over
+				tried.clear();
+				endpoint = reserve(tried);
+			}
+			long start = System.nanoTime();
+			try {
+				WebDriver driver = open(endpoint, options);
+				endpoint.active.incrementAndGet();
+				endpoint.sinceCheck.incrementAndGet();
+				sessions.put(driver, endpoint);
+				log.info("✔ " + options.getBrowserName() + " session started on " + endpoint + " in "
+						+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+				return driver;
+			} catch (WebDriverException e) {
+				last = e;
+				tried.add(endpoint);
+				endpoint.failedAt = System.currentTimeMillis();
+				log.warn("⚠️ Could not start " + options.getBrowserName() + " session on " + endpoint + " (attempt "
+						+ (attempt + 1) + "/" + (retries + 1) + "): " + firstLine(e.getMessage()));
+			} finally {
+				endpoint.pending.decrementAndGet();
+			}
+			if (attempt < retries) {
+				sleep(backoffMillis << attempt);
+			}
+		}
+		throw new SessionNotCreatedException("No grid endpoint could start a " + options.getBrowserName()
+				+ " session after " + (retries + 1) + " attempt(s)", last);
+	}
+
+	@Override
+	public void quit(WebDriver driver) {
+		Endpoint endpoint = sessions.remove(driver);
+		try {
+			driver.quit();
+		} finally {
+			if (endpoint != null) {
+				endpoint.active.decrementAndGet();
+				endpoint.sinceCheck.decrementAndGet();
+			}
+		}
+	}
+
+	private WebDriver open(Endpoint endpoint, MutableCapabilities options) {
+		ClientConfig config = ClientConfig.defaultConfig().connectionTimeout(connectTimeout)
+				.readTimeout(sessionTimeout);
+		WebDriver driver = RemoteWebDriver.builder().oneOf(options).address(endpoint.url).config(config).build();
+		return new Augmenter().augment(driver);
+	}
+
+	// -----------------------------------------
+	// ROUTING
+	// -----------------------------------------
+	/**
+	 * Chooses an endpoint and counts a pending session on it, as one step.
+	 */
+	private Endpoint reserve(Set<Endpoint> excluded) {
+		if (routing == Routing.LEAST_LOADED) {
+			// network calls stay outside the lock; the choice below uses the cached values
+			for (Endpoint endpoint : endpoints) {
+				if (!excluded.contains(endpoint)) {
+					refreshStatus(endpoint);
+				}
+			}
+		}
+		synchronized (this) {
+			Endpoint endpoint = choose(excluded);
+			if (endpoint != null) {
+				endpoint.pending.incrementAndGet();
+			}
+			return endpoint;
+		}
+	}
+
+	/** Must be called holding this factory's lock. */
+	private Endpoint choose(Set<Endpoint> excluded) {
+		long now = System.currentTimeMillis();
+		List<Endpoint> candidates = new ArrayList<>();
+		for (Endpoint endpoint : endpoints) {
+			if (!excluded.contains(endpoint) && now - endpoint.failedAt >= cooldownMillis) {
+				candidates.add(endpoint);
+			}
+		}
+		if (candidates.isEmpty()) {
+			// all cooling down: better to retry one than to give up
+			for (Endpoint endpoint : endpoints) {
+				if (!excluded.contains(endpoint)) {
+					candidates.add(endpoint);
+				}
+			}
+		}
+		if (candidates.isEmpty()) {
+			return null;
+		}
+
+		int offset = Math.floorMod(next.getAndIncrement(), candidates.size());
+		if (routing == Routing.ROUND_ROBIN) {
+			return candidates.get(offset);
+		}
+		// start at a rotating offset so ties spread across endpoints
+		Endpoint best = null;
+		int bestFree = Integer.MIN_VALUE;
+		for (int i = 0; i < candidates.size(); i++) {
+			Endpoint endpoint = candidates.get((offset + i) % candidates.size());
+			int free = freeSlots(endpoint);
+			if (free > bestFree) {
+				best = endpoint;
+				bestFree = free;
+			}
+		}
+		if (bestFree <= 0) {
+			log.debug("All grid endpoints are busy; " + best + " will queue the request");
+		}
+		return best;
+	}
+
+	private int freeSlots(Endpoint endpoint) {
+		int pending = endpoint.pending.get();
+		if (endpoint.freeSlots >= 0) {
+			// /status does not show what this JVM started (or ended) after it was read
+			return endpoint.freeSlots - endpoint.sinceCheck.get() - pending;
+		}
+		int active = endpoint.active.get();
+		return defaultCapacity > 0 ? defaultCapacity - active - pending : -(active + pending);
+	}
+
+	/**
+	 * Reads the free slots of the UP nodes behind the endpoint from its {@code /status}.
+	 * One thread refreshes at a time; the others use the last value.
+	 */
+	private void refreshStatus(Endpoint endpoint) {
+		long now = System.currentTimeMillis();
+		if (now - endpoint.checkedAt < statusRefreshMillis || !endpoint.checking.compareAndSet(false, true)) {
+			return;
+		}
+		// sessions started from here on may or may not be in the status read below; counting
+		// them twice is the safe side, so only those started before the request are settled
+		int settled = endpoint.sinceCheck.get();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.url + "/status"))
+					.timeout(connectTimeout).GET().build();
+			HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+			JsonNode value = mapper.readTree(response.body()).path("value");
+			int free = 0;
+			int total = 0;
+			for (JsonNode node : value.path("nodes")) {
+				if (!"UP".equalsIgnoreCase(node.path("availability").asText("UP"))) {
+					continue;
+				}
+				for (JsonNode slot : node.path("slots")) {
+					total++;
+					if (slot.path("session").isMissingNode() || slot.path("session").isNull()) {
+						free++;
+					}
+				}
+			}
+			endpoint.freeSlots = !value.path("ready").asBoolean(true) ? 0 : total > 0 ? free : -1;
+			endpoint.capacity = total;
+			endpoint.sinceCheck.addAndGet(-settled);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			endpoint.freeSlots = -1;
+		} catch (Exception e) {
+			log.debug("Could not read status of " + endpoint + ": " + e.getMessage());
+			endpoint.freeSlots = -1;
+		} finally {
+			endpoint.checkedAt = System.currentTimeMillis();
+			endpoint.checking.set(false);
+		}
+	}
+
+	private static String firstLine(String message) {
+		if (message == null) {
+			return "";
+		}
+		int newline = message.indexOf('\n');
+		return newline < 0 ? message : message.substring(0, newline);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SessionNotCreatedException("Interrupted while waiting to retry session creation");
+		}
+	}
+
+	/**
+	 * One hub or standalone server and what this JVM knows about its load.
+	 */
+	private static final class Endpoint {
+		final URL url;
+		// sessions this JVM holds there / is currently requesting
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger pending = new AtomicInteger();
+		// sessions started minus ended by this JVM since /status was last read
+		final AtomicInteger sinceCheck = new AtomicInteger();
+		final AtomicBoolean checking = new AtomicBoolean();
+		// from /status; -1 when unknown
+		volatile int freeSlots = -1;
+		volatile int capacity;
+		volatile long checkedAt;
+		volatile long failedAt = Long.MIN_VALUE / 2;
+
+		Endpoint(URL url) {
+			this.url = url;
+		}
+
+		@Override
+		public String toString() {
+			return url + " (active " + active.get() + (capacity > 0 ? ", slots " + capacity : "")
+					+ (freeSlots >= 0 ? ", free " + freeSlots : "") + ")";
+		}
+	}
+}
@@ -3,4 +3,9 @@ Feature: NECF Website Health Check
 
   Scenario: Sanity Test
     Given the website should load successfully
+    Then page load should complete within 10000 ms
+    And largest contentful paint should be under 4 s
+    And no more than 150 requests
+    And total transfer size should be under 5 MB
+    And all configured endpoints should be available
  